@@ -0,0 +1,42 @@
+package com.libreria.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point of the benchmarks jar. Accepts the usual JMH command line options,
+ * always adds the GC profiler (allocation rate) and forwards the "hibernate.*" and
+ * "libreria.*" system properties to the forked JVMs so they reach the same database.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+
+        boolean gcProfiler = commandLine.getProfilers().stream()
+                .anyMatch(profiler -> profiler.getKlass().equals("gc")
+                        || profiler.getKlass().equals(GCProfiler.class.getName()));
+        if (!gcProfiler) {
+            options.addProfiler(GCProfiler.class);
+        }
+
+        List<String> jvmArgs = new ArrayList<>();
+        jvmArgs.add("-Dhibernate.session.events.log=false");
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("hibernate.") || name.startsWith("libreria."))
+                .forEach(name -> jvmArgs.add("-D" + name + "=" + System.getProperty(name)));
+        options.jvmArgsAppend(jvmArgs.toArray(String[]::new));
+
+        new Runner(options.build()).run();
+    }
+}
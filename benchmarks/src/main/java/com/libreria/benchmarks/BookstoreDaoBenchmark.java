@@ -0,0 +1,89 @@
+package com.libreria.benchmarks;
+
+import com.libreria.dao.AutorDAO;
+import com.libreria.dao.EditorialDAO;
+import com.libreria.dao.LibreriaDAO;
+import com.libreria.dao.LibroDAO;
+import com.libreria.model.Autor;
+import com.libreria.model.Editorial;
+import com.libreria.model.Libreria;
+import com.libreria.model.Libro;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Main operations of the bookstore DAOs against the seeded data set.
+ * Saved authors and added books accumulate over the trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dhibernate.session.events.log=false")
+public class BookstoreDaoBenchmark {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final AutorDAO autorDAO = new AutorDAO();
+    private final EditorialDAO editorialDAO = new EditorialDAO();
+    private final LibroDAO libroDAO = new LibroDAO();
+    private final LibreriaDAO libreriaDAO = new LibreriaDAO();
+
+    @Benchmark
+    public Autor saveAutor(DatabaseState state) {
+        return autorDAO.save(new Autor("Autor", "Benchmark " + SEQUENCE.incrementAndGet(), LocalDate.of(1980, 1, 1)));
+    }
+
+    @Benchmark
+    public Libro findLibroById(DatabaseState state) {
+        return libroDAO.findById(state.dataset.randomLibroId());
+    }
+
+    @Benchmark
+    public List<Libro> findAllLibros(DatabaseState state) {
+        return libroDAO.findAll();
+    }
+
+    @Benchmark
+    public List<Libro> findAllLibrosWithPublisherAndAuthor(DatabaseState state) {
+        return libroDAO.findAllWithPublisherAndAuthor();
+    }
+
+    @Benchmark
+    public List<Libro> findAllLibrosWithBookstores(DatabaseState state) {
+        return libroDAO.findAllWithBookstores();
+    }
+
+    @Benchmark
+    public List<Autor> findAllAutoresWithBooks(DatabaseState state) {
+        return autorDAO.findAllWithBooks();
+    }
+
+    @Benchmark
+    public List<Editorial> findAllEditorialesWithBooks(DatabaseState state) {
+        return editorialDAO.findAllWithBooks();
+    }
+
+    @Benchmark
+    public List<Libreria> findAllLibreriasWithBooks(DatabaseState state) {
+        return libreriaDAO.findAllWithBooks();
+    }
+
+    @Benchmark
+    public void addBook(DatabaseState state) {
+        libreriaDAO.addBook(state.dataset.randomLibreriaId(), state.dataset.randomLibroId());
+    }
+}
@@ -0,0 +1,118 @@
+package com.libreria.benchmarks;
+
+import com.libreria.dao.DepartamentoDAO;
+import com.libreria.dao.EmpleadoDAO;
+import com.libreria.dao.ProyectoDAO;
+import com.libreria.model.Departamento;
+import com.libreria.model.Empleado;
+import com.libreria.model.Proyecto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Main operations of the company DAOs against the seeded data set.
+ * Saved departments accumulate over the trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dhibernate.session.events.log=false")
+public class CompanyDaoBenchmark {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final DepartamentoDAO departamentoDAO = new DepartamentoDAO();
+    private final EmpleadoDAO empleadoDAO = new EmpleadoDAO();
+    private final ProyectoDAO proyectoDAO = new ProyectoDAO();
+
+    @Benchmark
+    public Departamento saveDepartamento(DatabaseState state) {
+        // Department names are unique
+        return departamentoDAO.save(new Departamento(
+                "Benchmark " + SEQUENCE.incrementAndGet(), "Descripcion", "Planta"));
+    }
+
+    @Benchmark
+    public Empleado findEmpleadoById(DatabaseState state) {
+        return empleadoDAO.findById(state.dataset.randomEmpleadoId());
+    }
+
+    @Benchmark
+    public List<Empleado> findAllEmpleados(DatabaseState state) {
+        return empleadoDAO.findAll();
+    }
+
+    @Benchmark
+    public List<Empleado> findAllEmpleadosWithDepartment(DatabaseState state) {
+        return empleadoDAO.findAllWithDepartment();
+    }
+
+    @Benchmark
+    public List<Empleado> findAllEmpleadosWithAddress(DatabaseState state) {
+        return empleadoDAO.findAllWithAddress();
+    }
+
+    @Benchmark
+    public List<Empleado> findAllEmpleadosWithProjects(DatabaseState state) {
+        return empleadoDAO.findAllWithProjects();
+    }
+
+    @Benchmark
+    public List<Departamento> findAllDepartamentosWithEmployees(DatabaseState state) {
+        return departamentoDAO.findAllWithEmployees();
+    }
+
+    @Benchmark
+    public List<Proyecto> findAllProyectosWithEmployees(DatabaseState state) {
+        return proyectoDAO.findAllWithEmployees();
+    }
+
+    @Benchmark
+    public Empleado assignProyecto(Assignment assignment) {
+        return empleadoDAO.assignProyecto(assignment.empleadoId, assignment.proyecto);
+    }
+
+    /**
+     * Employee and project for the next {@code assignProyecto} call. assignProyecto expects
+     * a loaded project the employee does not have yet, so the pair is unassigned before
+     * each call, outside the measured time.
+     */
+    @State(Scope.Thread)
+    public static class Assignment {
+
+        private final EmpleadoDAO empleadoDAO = new EmpleadoDAO();
+        private List<Proyecto> proyectos;
+
+        Long empleadoId;
+        Proyecto proyecto;
+
+        @Setup(Level.Trial)
+        public void loadProyectos(DatabaseState state) {
+            proyectos = new ProyectoDAO().findAllById(state.dataset.proyectoIds());
+        }
+
+        @Setup(Level.Invocation)
+        public void pick(DatabaseState state) {
+            empleadoId = state.dataset.randomEmpleadoId();
+            proyecto = proyectos.get(ThreadLocalRandom.current().nextInt(proyectos.size()));
+            empleadoDAO.unassignProyectos(Map.of(empleadoId, List.of(proyecto.getId())));
+        }
+    }
+}
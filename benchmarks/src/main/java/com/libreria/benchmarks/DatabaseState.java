@@ -0,0 +1,34 @@
+package com.libreria.benchmarks;
+
+import com.libreria.database.HibernateUtil;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Database seeded once per trial with a data set of {@link #datasetSize} books and employees.
+ * The connection settings come from the "hibernate.*" system properties, e.g.
+ * {@code -Dhibernate.connection.url=jdbc:mysql://127.0.0.1:3306/libreriadb}.
+ */
+@State(Scope.Benchmark)
+public class DatabaseState {
+
+    @Param({"100", "1000", "10000"})
+    public int datasetSize;
+
+    public Dataset dataset;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        dataset = Dataset.seed(datasetSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Dataset.clear();
+        HibernateUtil.shutdown();
+    }
+}
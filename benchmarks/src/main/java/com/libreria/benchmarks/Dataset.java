@@ -0,0 +1,151 @@
+package com.libreria.benchmarks;
+
+import com.libreria.dao.AutorDAO;
+import com.libreria.dao.DepartamentoDAO;
+import com.libreria.dao.EditorialDAO;
+import com.libreria.dao.EmpleadoDAO;
+import com.libreria.dao.LibreriaDAO;
+import com.libreria.dao.LibroDAO;
+import com.libreria.dao.ProyectoDAO;
+import com.libreria.dao.PurgeDAO;
+import com.libreria.database.TransactionTemplate;
+import com.libreria.model.Autor;
+import com.libreria.model.Departamento;
+import com.libreria.model.Direccion;
+import com.libreria.model.Editorial;
+import com.libreria.model.Empleado;
+import com.libreria.model.Libreria;
+import com.libreria.model.Libro;
+import com.libreria.model.Proyecto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Data set seeded for a benchmark trial: {@code size} books and {@code size} employees,
+ * with authors, publishers, bookstores, departments and projects in proportion.
+ *
+ * @param libroIds IDs of the seeded books
+ * @param libreriaIds IDs of the seeded bookstores
+ * @param empleadoIds IDs of the seeded employees
+ * @param proyectoIds IDs of the seeded projects
+ */
+public record Dataset(List<Long> libroIds, List<Long> libreriaIds, List<Long> empleadoIds, List<Long> proyectoIds) {
+
+    /**
+     * Every table of both models, join tables first
+     */
+    static final List<String> TABLES = List.of(
+            "LIBRERIA_LIBRO", "LIBROS", "LIBRERIAS", "AUTORES", "EDITORIALES",
+            "EMPLEADO_PROYECTO", "EMPLEADOS", "DIRECCIONES", "PROYECTOS", "DEPARTAMENTOS");
+
+    /**
+     * Empty both models and seed them again in a single transaction
+     *
+     * @param size number of books and of employees
+     * @return the IDs the benchmarks pick from
+     */
+    public static Dataset seed(int size) {
+        clear();
+        return TransactionTemplate.readWrite().execute(session -> {
+            List<Autor> autores = new AutorDAO().saveAll(IntStream.range(0, ratio(size, 10))
+                    .mapToObj(i -> new Autor("Autor", "Apellido " + i, LocalDate.of(1950, 1, 1).plusDays(i)))
+                    .toList());
+            List<Editorial> editoriales = new EditorialDAO().saveAll(IntStream.range(0, ratio(size, 50))
+                    .mapToObj(i -> new Editorial("Editorial " + i, "Calle Editorial " + i))
+                    .toList());
+            List<Libro> libros = new LibroDAO().saveAll(IntStream.range(0, size)
+                    .mapToObj(i -> {
+                        Libro libro = new Libro("Libro " + i, BigDecimal.valueOf(10 + i % 40));
+                        libro.setAutor(autores.get(i % autores.size()));
+                        libro.setEditorial(editoriales.get(i % editoriales.size()));
+                        return libro;
+                    })
+                    .toList());
+            LibreriaDAO libreriaDAO = new LibreriaDAO();
+            List<Libreria> librerias = libreriaDAO.saveAll(IntStream.range(0, ratio(size, 100))
+                    .mapToObj(i -> new Libreria("Libreria " + i, "Dueno " + i, "Calle Libreria " + i))
+                    .toList());
+            for (int i = 0; i < librerias.size(); i++) {
+                List<Long> stock = new ArrayList<>();
+                for (int j = i; j < libros.size(); j += librerias.size()) {
+                    stock.add(libros.get(j).getId());
+                }
+                libreriaDAO.addBooks(librerias.get(i).getId(), stock);
+            }
+
+            List<Departamento> departamentos = new DepartamentoDAO().saveAll(IntStream.range(0, ratio(size, 20))
+                    .mapToObj(i -> new Departamento("Departamento " + i, "Descripcion " + i, "Planta " + i))
+                    .toList());
+            List<Proyecto> proyectos = new ProyectoDAO().saveAll(IntStream.range(0, ratio(size, 20))
+                    .mapToObj(i -> new Proyecto("Proyecto " + i, "Descripcion " + i,
+                            LocalDate.now(), LocalDate.now().plusMonths(6), 10_000.0 + i))
+                    .toList());
+            EmpleadoDAO empleadoDAO = new EmpleadoDAO();
+            List<Empleado> empleados = empleadoDAO.saveAll(IntStream.range(0, size)
+                    .mapToObj(i -> {
+                        Empleado empleado = new Empleado("Empleado", "Apellido " + i, "empleado" + i + "@bench.local",
+                                LocalDate.of(2020, 1, 1).plusDays(i % 1000), 30_000.0 + i);
+                        empleado.asignarDireccion(new Direccion("Calle " + i, "Ciudad " + i % 50, "28" + i % 1000, "España"));
+                        empleado.asignarDepartamento(departamentos.get(i % departamentos.size()));
+                        return empleado;
+                    })
+                    .toList());
+            Map<Long, List<Long>> asignaciones = new HashMap<>();
+            for (int i = 0; i < empleados.size(); i++) {
+                asignaciones.put(empleados.get(i).getId(), List.of(
+                        proyectos.get(i % proyectos.size()).getId(),
+                        proyectos.get((i + 1) % proyectos.size()).getId()));
+            }
+            empleadoDAO.assignProyectos(asignaciones);
+
+            return new Dataset(
+                    libros.stream().map(Libro::getId).toList(),
+                    librerias.stream().map(Libreria::getId).toList(),
+                    empleados.stream().map(Empleado::getId).toList(),
+                    proyectos.stream().map(Proyecto::getId).toList());
+        });
+    }
+
+    /**
+     * Empty every table of both models
+     */
+    public static void clear() {
+        new PurgeDAO().truncate(TABLES);
+    }
+
+    /**
+     * @return a random book ID
+     */
+    public Long randomLibroId() {
+        return random(libroIds);
+    }
+
+    /**
+     * @return a random bookstore ID
+     */
+    public Long randomLibreriaId() {
+        return random(libreriaIds);
+    }
+
+    /**
+     * @return a random employee ID
+     */
+    public Long randomEmpleadoId() {
+        return random(empleadoIds);
+    }
+
+    private static Long random(List<Long> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private static int ratio(int size, int divisor) {
+        return Math.max(1, size / divisor);
+    }
+}
@@ -0,0 +1,84 @@
+package com.libreria.benchmarks;
+
+import com.libreria.service.BookstoreService;
+import com.libreria.service.CompanyService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The query workflows of both services, from the DAO call to the formatted output.
+ * Standard output is discarded while measuring, so console speed does not count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dhibernate.session.events.log=false")
+public class ServiceBenchmark {
+
+    private final BookstoreService bookstoreService = new BookstoreService();
+    private final CompanyService companyService = new CompanyService();
+
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void discardOutput() {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreOutput() {
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public void showAllBooksWithPublisherAndAuthor(DatabaseState state) {
+        bookstoreService.showAllBooksWithPublisherAndAuthor();
+    }
+
+    @Benchmark
+    public void showAllAuthorsWithBooks(DatabaseState state) {
+        bookstoreService.showAllAuthorsWithBooks();
+    }
+
+    @Benchmark
+    public void showAllBookstoresWithBooks(DatabaseState state) {
+        bookstoreService.showAllBookstoresWithBooks();
+    }
+
+    @Benchmark
+    public void showAllBooksWithBookstores(DatabaseState state) {
+        bookstoreService.showAllBooksWithBookstores();
+    }
+
+    @Benchmark
+    public void demonstrateOneToOne(DatabaseState state) {
+        companyService.demonstrateOneToOne();
+    }
+
+    @Benchmark
+    public void demonstrateOneToMany(DatabaseState state) {
+        companyService.demonstrateOneToMany();
+    }
+
+    @Benchmark
+    public void demonstrateManyToMany(DatabaseState state) {
+        companyService.demonstrateManyToMany();
+    }
+}
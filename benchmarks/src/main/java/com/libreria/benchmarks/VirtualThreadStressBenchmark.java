@@ -0,0 +1,159 @@
+package com.libreria.benchmarks;
+
+import com.libreria.dao.AutorDAO;
+import com.libreria.dao.EmpleadoDAO;
+import com.libreria.database.HibernateUtil;
+import com.libreria.database.PoolMetrics;
+import com.libreria.database.TransactionTemplate;
+import com.libreria.model.Autor;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stress run of the DAO layer on virtual threads: each invocation starts {@link #virtualThreads}
+ * virtual threads that share the same DAO instances, each running one unit of work (read an
+ * employee, save an author) in its own transaction, far more than the pool has connections.
+ * Two JMH threads fire bursts at the same time.
+ * <p>
+ * The virtual thread scheduler runs on {@link #parallelism} carrier threads, so the
+ * {@code units} counter (committed units of work per second) shows how throughput scales with
+ * the cores given to it. The scheduler reads its parallelism once, when the JVM starts its first
+ * virtual thread; each parameter combination runs in a fresh fork, so the value set in
+ * {@link #configureScheduler()} is the one in effect. Values above the machine's core count only
+ * add carriers that compete for the same cores, and past the transaction permits of the pool
+ * (see {@code TransactionTemplate}) extra carriers mostly wait for a connection.
+ * <p>
+ * The run fails instead of reporting a score if a burst does not finish within
+ * {@value #BURST_TIMEOUT_SECONDS} seconds (deadlock or pool starvation), if any unit of
+ * work throws, or, checked after every iteration, if the saved authors do not match the
+ * committed units, a connection request timed out or a connection was not returned.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(2)
+@Fork(value = 1, jvmArgsAppend = "-Dhibernate.session.events.log=false")
+public class VirtualThreadStressBenchmark {
+
+    private static final int BURST_TIMEOUT_SECONDS = 60;
+    private static final String SCHEDULER_PARALLELISM = "jdk.virtualThreadScheduler.parallelism";
+
+    @Param({"1000", "10000"})
+    public int virtualThreads;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private final AutorDAO autorDAO = new AutorDAO();
+    private final EmpleadoDAO empleadoDAO = new EmpleadoDAO();
+    private final AtomicLong committed = new AtomicLong();
+
+    private long autoresBefore;
+    private long timeoutsBefore;
+
+    /**
+     * Units of work committed by one JMH thread, reported by JMH as a rate next to the burst rate
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Units {
+        public long units;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            units = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void configureScheduler() {
+        String configured = System.getProperty(SCHEDULER_PARALLELISM);
+        if (configured != null && !configured.equals(String.valueOf(parallelism))) {
+            throw new IllegalStateException(SCHEDULER_PARALLELISM + "=" + configured
+                    + " conflicts with parallelism=" + parallelism);
+        }
+        System.setProperty(SCHEDULER_PARALLELISM, String.valueOf(parallelism));
+    }
+
+    @Setup(Level.Iteration)
+    public void snapshot(DatabaseState state) {
+        autoresBefore = autorDAO.count();
+        timeoutsBefore = HibernateUtil.getPoolMetrics().getConnectionTimeouts();
+        committed.set(0);
+    }
+
+    @Benchmark
+    public long burst(DatabaseState state, Units counter) throws Exception {
+        List<Future<?>> units = new ArrayList<>(virtualThreads);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < virtualThreads; i++) {
+                units.add(executor.submit(() -> unitOfWork(state)));
+            }
+            executor.shutdown();
+            if (!executor.awaitTermination(BURST_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+                throw new IllegalStateException("Burst of " + virtualThreads
+                        + " units still running after " + BURST_TIMEOUT_SECONDS + "s: deadlock or pool starvation");
+            }
+        }
+        for (Future<?> unit : units) {
+            try {
+                unit.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Unit of work failed", e.getCause());
+            }
+        }
+        counter.units += units.size();
+        return units.size();
+    }
+
+    private void unitOfWork(DatabaseState state) {
+        TransactionTemplate.readWrite().executeWithoutResult(session -> {
+            empleadoDAO.findById(state.dataset.randomEmpleadoId());
+            autorDAO.save(new Autor("Stress", "Autor", LocalDate.of(1970, 1, 1)));
+        });
+        committed.incrementAndGet();
+    }
+
+    @TearDown(Level.Iteration)
+    public void verify() {
+        long saved = autorDAO.count() - autoresBefore;
+        if (saved != committed.get()) {
+            throw new IllegalStateException(committed.get() + " units committed but " + saved + " authors saved");
+        }
+        PoolMetrics pool = HibernateUtil.getPoolMetrics();
+        if (pool.getConnectionTimeouts() != timeoutsBefore) {
+            throw new IllegalStateException((pool.getConnectionTimeouts() - timeoutsBefore)
+                    + " connection requests timed out: " + pool.summary());
+        }
+        if (pool.getActiveConnections() != 0) {
+            throw new IllegalStateException(pool.getActiveConnections()
+                    + " connections not returned to the pool: " + pool.summary());
+        }
+    }
+}
@@ -3,6 +3,15 @@ DROP DATABASE IF EXISTS libreriadb;
 CREATE DATABASE libreriadb;
 USE libreriadb;
 
+-- Crear tabla ID_GENERADORES (generador de IDs por tabla, reservados en bloques de 50)
+-- Si se migra una base de datos existente, insertar una fila por tabla con un valor
+-- mayor que MAX(id) + 50, por ejemplo:
+--   INSERT INTO ID_GENERADORES SELECT 'LIBROS', COALESCE(MAX(id), 0) + 51 FROM LIBROS;
+CREATE TABLE ID_GENERADORES (
+    tabla VARCHAR(255) NOT NULL PRIMARY KEY,
+    siguiente_id BIGINT
+) ENGINE=InnoDB;
+
 -- Crear tabla AUTORES
 CREATE TABLE AUTORES (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -1,10 +1,8 @@
 package com.libreria.dao;
 
-import com.libreria.database.HibernateUtil;
+import com.libreria.dto.AutorLibroDTO;
 import com.libreria.model.Autor;
 
-import org.hibernate.Session;
-import org.hibernate.Transaction;
 import org.hibernate.query.Query;
 
 import java.util.List;
@@ -12,9 +10,11 @@ import java.util.List;
 /**
  * Data Access Object for Autor entity
  */
-public class AutorDAO {
+public class AutorDAO extends GenericDAO<Autor> {
 
-    private Session session;
+    public AutorDAO() {
+        super(Autor.class);
+    }
 
     /**
      * Save an author to the database
@@ -23,26 +23,10 @@ public class AutorDAO {
      * @return the saved author with generated ID
      */
     public Autor save(Autor autor) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        return execute("save", session -> {
             session.persist(autor);
-            if (!existingTransaction) {
-                tx.commit();
-            }
             return autor;
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
     }
 
     /**
@@ -52,21 +36,7 @@ public class AutorDAO {
      * @return the found author or null if not found
      */
     public Autor findById(Long id) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
-            Autor autor = session.get(Autor.class, id);
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return autor;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        return query("findById", session -> session.get(Autor.class, id));
     }
 
     /**
@@ -75,22 +45,10 @@ public class AutorDAO {
      * @return list of all authors
      */
     public List<Autor> findAll() {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        return query("findAll", session -> {
             Query<Autor> query = session.createNamedQuery("Autor.findAll", Autor.class);
-            List<Autor> result = query.getResultList();
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return result;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+            return query.getResultList();
+        });
     }
 
     /**
@@ -99,25 +57,12 @@ public class AutorDAO {
      * @return list of authors with their books
      */
     public List<Autor> findAllWithBooks() {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
-            Query<Autor> query = session.createQuery(
-                    "SELECT DISTINCT a FROM Autor a LEFT JOIN FETCH a.libros",
-                    Autor.class
-            );
+        return query("findAllWithBooks", session -> {
+            Query<Autor> query = session.createNamedQuery("Autor.findAll", Autor.class);
             List<Autor> result = query.getResultList();
-            if (!existingTransaction) {
-                tx.commit();
-            }
+            initializeAll(result, Autor::getLibros);
             return result;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
     }
 
     /**
@@ -127,26 +72,7 @@ public class AutorDAO {
      * @return the updated author
      */
     public Autor update(Autor autor) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
-            Autor updatedAutor = session.merge(autor);
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return updatedAutor;
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        return execute("update", session -> session.merge(autor));
     }
 
     /**
@@ -155,27 +81,29 @@ public class AutorDAO {
      * @param id the author ID to delete
      */
     public void delete(Long id) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        executeWithoutResult("delete", session -> {
             Autor autor = session.get(Autor.class, id);
             if (autor != null) {
                 session.remove(autor);
             }
-            if (!existingTransaction) {
-                tx.commit();
-            }
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
+    }
+
+    /**
+     * Find every author paired with its books as read-only rows
+     *
+     * @return one projection per author-book pair, ordered by author
+     */
+    public List<AutorLibroDTO> findAllWithBooksProjection() {
+        return query("findAllWithBooksProjection", session -> {
+            Query<AutorLibroDTO> query = session.createQuery(
+                    "SELECT new com.libreria.dto.AutorLibroDTO(" +
+                            "a.id, a.nombre, a.apellidos, l.id, l.titulo, l.precio) " +
+                            "FROM Autor a LEFT JOIN a.libros l " +
+                            "ORDER BY a.id, l.id",
+                    AutorLibroDTO.class
+            );
+            return query.getResultList();
+        });
     }
 }
\ No newline at end of file
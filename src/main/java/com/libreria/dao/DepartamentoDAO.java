@@ -1,10 +1,8 @@
 package com.libreria.dao;
 
-import com.libreria.database.HibernateUtil;
+import com.libreria.dto.DepartamentoEmpleadoDTO;
 import com.libreria.model.Departamento;
 
-import org.hibernate.Session;
-import org.hibernate.Transaction;
 import org.hibernate.query.Query;
 
 import java.util.List;
@@ -12,9 +10,11 @@ import java.util.List;
 /**
  * Data Access Object for Departamento entity
  */
-public class DepartamentoDAO {
+public class DepartamentoDAO extends GenericDAO<Departamento> {
 
-    private Session session;
+    public DepartamentoDAO() {
+        super(Departamento.class);
+    }
 
     /**
      * Save a department to the database
@@ -23,26 +23,10 @@ public class DepartamentoDAO {
      * @return the saved department with generated ID
      */
     public Departamento save(Departamento departamento) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        return execute("save", session -> {
             session.persist(departamento);
-            if (!existingTransaction) {
-                tx.commit();
-            }
             return departamento;
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
     }
 
     /**
@@ -52,21 +36,7 @@ public class DepartamentoDAO {
      * @return the found department or null if not found
      */
     public Departamento findById(Long id) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
-            Departamento departamento = session.get(Departamento.class, id);
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return departamento;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        return query("findById", session -> session.get(Departamento.class, id));
     }
 
     /**
@@ -75,22 +45,10 @@ public class DepartamentoDAO {
      * @return list of all departments
      */
     public List<Departamento> findAll() {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        return query("findAll", session -> {
             Query<Departamento> query = session.createNamedQuery("Departamento.findAll", Departamento.class);
-            List<Departamento> result = query.getResultList();
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return result;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+            return query.getResultList();
+        });
     }
 
     /**
@@ -99,25 +57,12 @@ public class DepartamentoDAO {
      * @return list of departments with their employees
      */
     public List<Departamento> findAllWithEmployees() {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
-            Query<Departamento> query = session.createQuery(
-                    "SELECT DISTINCT d FROM Departamento d LEFT JOIN FETCH d.empleados",
-                    Departamento.class
-            );
+        return query("findAllWithEmployees", session -> {
+            Query<Departamento> query = session.createNamedQuery("Departamento.findAll", Departamento.class);
             List<Departamento> result = query.getResultList();
-            if (!existingTransaction) {
-                tx.commit();
-            }
+            initializeAll(result, Departamento::getEmpleados);
             return result;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
     }
 
     /**
@@ -127,26 +72,7 @@ public class DepartamentoDAO {
      * @return the updated department
      */
     public Departamento update(Departamento departamento) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
-            Departamento updatedDepartamento = session.merge(departamento);
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return updatedDepartamento;
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        return execute("update", session -> session.merge(departamento));
     }
 
     /**
@@ -155,27 +81,64 @@ public class DepartamentoDAO {
      * @param id the department ID to delete
      */
     public void delete(Long id) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        executeWithoutResult("delete", session -> {
             Departamento departamento = session.get(Departamento.class, id);
             if (departamento != null) {
                 session.remove(departamento);
             }
-            if (!existingTransaction) {
-                tx.commit();
-            }
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
+    }
+
+    /**
+     * Find every department paired with its employees as read-only rows
+     *
+     * @return one projection per department-employee pair, ordered by department
+     */
+    public List<DepartamentoEmpleadoDTO> findAllWithEmployeesProjection() {
+        return query("findAllWithEmployeesProjection", session -> {
+            Query<DepartamentoEmpleadoDTO> query = session.createQuery(
+                    "SELECT new com.libreria.dto.DepartamentoEmpleadoDTO(" +
+                            "d.id, d.nombre, d.descripcion, d.ubicacion, " +
+                            "e.id, e.nombre, e.apellido, e.fechaContratacion) " +
+                            "FROM Departamento d LEFT JOIN d.empleados e " +
+                            "ORDER BY d.id, e.id",
+                    DepartamentoEmpleadoDTO.class
+            );
+            return query.getResultList();
+        });
+    }
+
+    /**
+     * Check whether an employee belongs to a department without loading the employee list
+     *
+     * @param departamentoId the department ID
+     * @param empleadoId the employee ID
+     * @return true if the employee is in the department
+     */
+    public boolean containsEmpleado(Long departamentoId, Long empleadoId) {
+        return query("containsEmpleado", session -> {
+            Query<Long> query = session.createQuery(
+                    "SELECT count(*) FROM Empleado e " +
+                            "WHERE e.id = :empleadoId AND e.departamento.id = :departamentoId",
+                    Long.class);
+            query.setParameter("empleadoId", empleadoId);
+            query.setParameter("departamentoId", departamentoId);
+            return query.getSingleResult() > 0;
+        });
+    }
+
+    /**
+     * Count the employees of a department without loading the employee list
+     *
+     * @param departamentoId the department ID
+     * @return number of employees in the department
+     */
+    public long countEmpleados(Long departamentoId) {
+        return query("countEmpleados", session -> {
+            Query<Long> query = session.createQuery(
+                    "SELECT count(*) FROM Empleado e WHERE e.departamento.id = :departamentoId", Long.class);
+            query.setParameter("departamentoId", departamentoId);
+            return query.getSingleResult();
+        });
     }
-}
\ No newline at end of file
+}
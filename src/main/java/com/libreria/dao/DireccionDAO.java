@@ -1,10 +1,7 @@
 package com.libreria.dao;
 
-import com.libreria.database.HibernateUtil;
 import com.libreria.model.Direccion;
 
-import org.hibernate.Session;
-import org.hibernate.Transaction;
 import org.hibernate.query.Query;
 
 import java.util.List;
@@ -12,9 +9,11 @@ import java.util.List;
 /**
  * Data Access Object for Direccion entity
  */
-public class DireccionDAO {
+public class DireccionDAO extends GenericDAO<Direccion> {
 
-    private Session session;
+    public DireccionDAO() {
+        super(Direccion.class);
+    }
 
     /**
      * Save an address to the database
@@ -23,26 +22,10 @@ public class DireccionDAO {
      * @return the saved address with generated ID
      */
     public Direccion save(Direccion direccion) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        return execute("save", session -> {
             session.persist(direccion);
-            if (!existingTransaction) {
-                tx.commit();
-            }
             return direccion;
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
     }
 
     /**
@@ -52,21 +35,7 @@ public class DireccionDAO {
      * @return the found address or null if not found
      */
     public Direccion findById(Long id) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
-            Direccion direccion = session.get(Direccion.class, id);
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return direccion;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        return query("findById", session -> session.get(Direccion.class, id));
     }
 
     /**
@@ -75,22 +44,10 @@ public class DireccionDAO {
      * @return list of all addresses
      */
     public List<Direccion> findAll() {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        return query("findAll", session -> {
             Query<Direccion> query = session.createNamedQuery("Direccion.findAll", Direccion.class);
-            List<Direccion> result = query.getResultList();
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return result;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+            return query.getResultList();
+        });
     }
 
     /**
@@ -100,26 +57,7 @@ public class DireccionDAO {
      * @return the updated address
      */
     public Direccion update(Direccion direccion) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
-            Direccion updatedDireccion = session.merge(direccion);
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return updatedDireccion;
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        return execute("update", session -> session.merge(direccion));
     }
 
     /**
@@ -128,27 +66,26 @@ public class DireccionDAO {
      * @param id the address ID to delete
      */
     public void delete(Long id) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        executeWithoutResult("delete", session -> {
             Direccion direccion = session.get(Direccion.class, id);
             if (direccion != null) {
                 session.remove(direccion);
             }
-            if (!existingTransaction) {
-                tx.commit();
-            }
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
+    }
+
+    /**
+     * Find the addresses in a city
+     * Served from the query cache while DIRECCIONES is unchanged.
+     *
+     * @param ciudad the exact city name
+     * @return the matching addresses
+     */
+    public List<Direccion> findByCiudad(String ciudad) {
+        return query("findByCiudad", session -> {
+            Query<Direccion> query = session.createNamedQuery("Direccion.findByCiudad", Direccion.class);
+            query.setParameter("ciudad", ciudad);
+            return query.getResultList();
+        });
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,7 @@
 package com.libreria.dao;
 
-import com.libreria.database.HibernateUtil;
 import com.libreria.model.Editorial;
 
-import org.hibernate.Session;
-import org.hibernate.Transaction;
 import org.hibernate.query.Query;
 
 import java.util.List;
@@ -12,9 +9,11 @@ import java.util.List;
 /**
  * Data Access Object for Editorial entity
  */
-public class EditorialDAO {
+public class EditorialDAO extends GenericDAO<Editorial> {
 
-    private Session session;
+    public EditorialDAO() {
+        super(Editorial.class);
+    }
 
     /**
      * Save a publisher to the database
@@ -23,26 +22,10 @@ public class EditorialDAO {
      * @return the saved publisher with generated ID
      */
     public Editorial save(Editorial editorial) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        return execute("save", session -> {
             session.persist(editorial);
-            if (!existingTransaction) {
-                tx.commit();
-            }
             return editorial;
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
     }
 
     /**
@@ -52,21 +35,7 @@ public class EditorialDAO {
      * @return the found publisher or null if not found
      */
     public Editorial findById(Long id) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
-            Editorial editorial = session.get(Editorial.class, id);
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return editorial;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        return query("findById", session -> session.get(Editorial.class, id));
     }
 
     /**
@@ -75,22 +44,10 @@ public class EditorialDAO {
      * @return list of all publishers
      */
     public List<Editorial> findAll() {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        return query("findAll", session -> {
             Query<Editorial> query = session.createNamedQuery("Editorial.findAll", Editorial.class);
-            List<Editorial> result = query.getResultList();
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return result;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+            return query.getResultList();
+        });
     }
 
     /**
@@ -99,25 +56,12 @@ public class EditorialDAO {
      * @return list of publishers with their books
      */
     public List<Editorial> findAllWithBooks() {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
-            Query<Editorial> query = session.createQuery(
-                    "SELECT DISTINCT e FROM Editorial e LEFT JOIN FETCH e.librosPublicados",
-                    Editorial.class
-            );
+        return query("findAllWithBooks", session -> {
+            Query<Editorial> query = session.createNamedQuery("Editorial.findAll", Editorial.class);
             List<Editorial> result = query.getResultList();
-            if (!existingTransaction) {
-                tx.commit();
-            }
+            initializeAll(result, Editorial::getLibrosPublicados);
             return result;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
     }
 
     /**
@@ -127,26 +71,7 @@ public class EditorialDAO {
      * @return the updated publisher
      */
     public Editorial update(Editorial editorial) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
-            Editorial updatedEditorial = session.merge(editorial);
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return updatedEditorial;
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        return execute("update", session -> session.merge(editorial));
     }
 
     /**
@@ -155,27 +80,11 @@ public class EditorialDAO {
      * @param id the publisher ID to delete
      */
     public void delete(Long id) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        executeWithoutResult("delete", session -> {
             Editorial editorial = session.get(Editorial.class, id);
             if (editorial != null) {
                 session.remove(editorial);
             }
-            if (!existingTransaction) {
-                tx.commit();
-            }
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
     }
 }
\ No newline at end of file
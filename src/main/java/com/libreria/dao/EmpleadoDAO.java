@@ -1,21 +1,53 @@
 package com.libreria.dao;
 
-import com.libreria.database.HibernateUtil;
+import com.libreria.dto.EmpleadoDireccionDTO;
+import com.libreria.dto.ProyectoEmpleadoDTO;
+import com.libreria.model.Departamento;
 import com.libreria.model.Empleado;
 import com.libreria.model.Proyecto;
 
 import org.hibernate.Session;
-import org.hibernate.Transaction;
 import org.hibernate.query.Query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for Empleado entity
  */
-public class EmpleadoDAO {
+public class EmpleadoDAO extends GenericDAO<Empleado> {
 
-    private Session session;
+    private static final JoinTableBatch EMPLEADO_PROYECTO = new JoinTableBatch(
+            "EMPLEADO_PROYECTO", "empleado_id", "proyecto_id",
+            "com.libreria.model.Empleado.proyectos", "com.libreria.model.Proyecto.empleados");
+
+    public EmpleadoDAO() {
+        super(Empleado.class);
+    }
+
+    @Override
+    protected Map<String, String> getJoinTableColumns() {
+        return Map.of("EMPLEADO_PROYECTO", "empleado_id");
+    }
+
+    /**
+     * Delete a chunk of employees together with their project assignments and,
+     * since the address is owned by the employee, their addresses
+     */
+    @Override
+    protected int deleteChunk(Session session, List<Long> ids) {
+        List<Long> direccionIds = session.createQuery(
+                        "SELECT e.direccion.id FROM Empleado e WHERE e.id IN (:ids) AND e.direccion IS NOT NULL",
+                        Long.class)
+                .setParameterList("ids", ids)
+                .getResultList();
+        int deleted = super.deleteChunk(session, ids);
+        if (!direccionIds.isEmpty()) {
+            deleteIn(session, "DIRECCIONES", "id", direccionIds);
+        }
+        return deleted;
+    }
 
     /**
      * Save an employee to the database
@@ -24,26 +56,10 @@ public class EmpleadoDAO {
      * @return the saved employee with generated ID
      */
     public Empleado save(Empleado empleado) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        return execute("save", session -> {
             session.persist(empleado);
-            if (!existingTransaction) {
-                tx.commit();
-            }
             return empleado;
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
     }
 
     /**
@@ -53,21 +69,7 @@ public class EmpleadoDAO {
      * @return the found employee or null if not found
      */
     public Empleado findById(Long id) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
-            Empleado empleado = session.get(Empleado.class, id);
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return empleado;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        return query("findById", session -> session.get(Empleado.class, id));
     }
 
     /**
@@ -76,22 +78,10 @@ public class EmpleadoDAO {
      * @return list of all employees
      */
     public List<Empleado> findAll() {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        return query("findAll", session -> {
             Query<Empleado> query = session.createNamedQuery("Empleado.findAll", Empleado.class);
-            List<Empleado> result = query.getResultList();
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return result;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+            return query.getResultList();
+        });
     }
 
     /**
@@ -100,25 +90,13 @@ public class EmpleadoDAO {
      * @return list of employees with their department
      */
     public List<Empleado> findAllWithDepartment() {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        return query("findAllWithDepartment", session -> {
             Query<Empleado> query = session.createQuery(
                     "SELECT DISTINCT e FROM Empleado e LEFT JOIN FETCH e.departamento",
                     Empleado.class
             );
-            List<Empleado> result = query.getResultList();
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return result;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+            return query.getResultList();
+        });
     }
 
     /**
@@ -127,25 +105,13 @@ public class EmpleadoDAO {
      * @return list of employees with their address
      */
     public List<Empleado> findAllWithAddress() {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        return query("findAllWithAddress", session -> {
             Query<Empleado> query = session.createQuery(
                     "SELECT DISTINCT e FROM Empleado e LEFT JOIN FETCH e.direccion",
                     Empleado.class
             );
-            List<Empleado> result = query.getResultList();
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return result;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+            return query.getResultList();
+        });
     }
 
     /**
@@ -154,25 +120,12 @@ public class EmpleadoDAO {
      * @return list of employees with their projects
      */
     public List<Empleado> findAllWithProjects() {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
-            Query<Empleado> query = session.createQuery(
-                    "SELECT DISTINCT e FROM Empleado e LEFT JOIN FETCH e.proyectos",
-                    Empleado.class
-            );
+        return query("findAllWithProjects", session -> {
+            Query<Empleado> query = session.createNamedQuery("Empleado.findAll", Empleado.class);
             List<Empleado> result = query.getResultList();
-            if (!existingTransaction) {
-                tx.commit();
-            }
+            initializeAll(result, Empleado::getProyectos);
             return result;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
     }
 
     /**
@@ -182,26 +135,7 @@ public class EmpleadoDAO {
      * @return the updated employee
      */
     public Empleado update(Empleado empleado) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
-            Empleado updatedEmpleado = session.merge(empleado);
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return updatedEmpleado;
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        return execute("update", session -> session.merge(empleado));
     }
 
     /**
@@ -210,28 +144,12 @@ public class EmpleadoDAO {
      * @param id the employee ID to delete
      */
     public void delete(Long id) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        executeWithoutResult("delete", session -> {
             Empleado empleado = session.get(Empleado.class, id);
             if (empleado != null) {
                 session.remove(empleado);
             }
-            if (!existingTransaction) {
-                tx.commit();
-            }
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
     }
 
     /**
@@ -242,29 +160,121 @@ public class EmpleadoDAO {
      * @return the updated employee
      */
     public Empleado assignProyecto(Long empleadoId, Proyecto proyecto) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        return execute("assignProyecto", session -> {
             Empleado empleado = session.get(Empleado.class, empleadoId);
             if (empleado != null) {
                 empleado.asignarProyecto(proyecto);
                 session.merge(empleado);
             }
-            if (!existingTransaction) {
-                tx.commit();
-            }
             return empleado;
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
+    }
+
+    /**
+     * Move an employee to a department with a single UPDATE, without loading
+     * the employee or the department's employee list.
+     * Cached copies of the employee and of the department collections are evicted by Hibernate.
+     *
+     * @param empleadoId the employee ID
+     * @param departamentoId the department ID, or null to leave the employee without department
+     * @return true if the employee exists
+     */
+    public boolean assignDepartamento(Long empleadoId, Long departamentoId) {
+        return execute("assignDepartamento", session -> {
+            Departamento departamento = departamentoId != null
+                    ? session.getReference(Departamento.class, departamentoId)
+                    : null;
+            int updated = session.createMutationQuery(
+                            "UPDATE Empleado e SET e.departamento = :departamento WHERE e.id = :empleadoId")
+                    .setParameter("departamento", departamento)
+                    .setParameter("empleadoId", empleadoId)
+                    .executeUpdate();
+            return updated > 0;
+        });
+    }
+
+    /**
+     * Assign many projects to many employees by inserting the join rows in JDBC batches,
+     * without loading the employees, the projects or either collection.
+     * Pairs that already exist are skipped.
+     *
+     * @param proyectoIdsByEmpleadoId project IDs to assign, grouped by employee ID
+     */
+    public void assignProyectos(Map<Long, ? extends Collection<Long>> proyectoIdsByEmpleadoId) {
+        executeWithoutResult("assignProyectos", session ->
+                EMPLEADO_PROYECTO.insert(session, JoinTableBatch.pairs(proyectoIdsByEmpleadoId)));
+    }
+
+    /**
+     * Unassign many projects from many employees by deleting the join rows in JDBC batches,
+     * without loading the employees, the projects or either collection.
+     * Pairs that do not exist are ignored.
+     *
+     * @param proyectoIdsByEmpleadoId project IDs to unassign, grouped by employee ID
+     */
+    public void unassignProyectos(Map<Long, ? extends Collection<Long>> proyectoIdsByEmpleadoId) {
+        executeWithoutResult("unassignProyectos", session ->
+                EMPLEADO_PROYECTO.delete(session, JoinTableBatch.pairs(proyectoIdsByEmpleadoId)));
+    }
+
+    /**
+     * Find every employee with its address as read-only rows
+     *
+     * @return one projection per employee
+     */
+    public List<EmpleadoDireccionDTO> findAllWithAddressProjection() {
+        return query("findAllWithAddressProjection", session -> {
+            Query<EmpleadoDireccionDTO> query = session.createQuery(
+                    "SELECT new com.libreria.dto.EmpleadoDireccionDTO(" +
+                            "e.nombre, e.apellido, d.calle, d.ciudad, d.codigoPostal, d.pais) " +
+                            "FROM Empleado e LEFT JOIN e.direccion d " +
+                            "ORDER BY e.id",
+                    EmpleadoDireccionDTO.class
+            );
+            return query.getResultList();
+        });
+    }
+
+    /**
+     * Find every employee paired with its projects as read-only rows
+     *
+     * @return one projection per employee-project pair, ordered by employee
+     */
+    public List<ProyectoEmpleadoDTO> findAllWithProjectsProjection() {
+        return query("findAllWithProjectsProjection", session -> {
+            Query<ProyectoEmpleadoDTO> query = session.createQuery(
+                    "SELECT new com.libreria.dto.ProyectoEmpleadoDTO(" +
+                            "p.id, p.nombre, p.descripcion, p.presupuesto, e.id, e.nombre, e.apellido, e.email) " +
+                            "FROM Empleado e LEFT JOIN e.proyectos p " +
+                            "ORDER BY e.id, p.id",
+                    ProyectoEmpleadoDTO.class
+            );
+            return query.getResultList();
+        });
+    }
+
+    /**
+     * Find the employees of a department
+     * Served from the query cache while EMPLEADOS is unchanged.
+     *
+     * @param departamentoId the department ID
+     * @return the department's employees
+     */
+    public List<Empleado> findByDepartamentoId(Long departamentoId) {
+        return query("findByDepartamentoId", session -> {
+            Query<Empleado> query = session.createNamedQuery("Empleado.findByDepartamentoId", Empleado.class);
+            query.setParameter("departamentoId", departamentoId);
+            return query.getResultList();
+        });
+    }
+
+    /**
+     * Change the salary of many employees with batched column-level UPDATEs, without loading them
+     *
+     * @param salariosById new salary per employee ID
+     * @return the IDs that matched no employee
+     */
+    public List<Long> updateSalarios(Map<Long, Double> salariosById) {
+        return updateColumn("salario", salariosById);
     }
-}
\ No newline at end of file
+}
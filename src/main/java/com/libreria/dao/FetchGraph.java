@@ -0,0 +1,64 @@
+package com.libreria.dao;
+
+import jakarta.persistence.EntityGraph;
+import org.hibernate.Session;
+import org.hibernate.graph.GraphParser;
+import org.hibernate.graph.RootGraph;
+
+/**
+ * Fetch plan chosen by the caller of a DAO query: either a named entity graph
+ * declared on the entity, or a graph built on the fly from attribute paths.
+ * Attributes in the graph are loaded in the same query; anything else stays lazy.
+ */
+public final class FetchGraph {
+
+    private final String name;
+    private final String attributes;
+
+    private FetchGraph(String name, String attributes) {
+        this.name = name;
+        this.attributes = attributes;
+    }
+
+    /**
+     * Use a graph declared with {@code @NamedEntityGraph}, e.g. "Empleado.withProyectos"
+     *
+     * @param graphName the name of the entity graph
+     * @return the fetch graph
+     */
+    public static FetchGraph named(String graphName) {
+        return new FetchGraph(graphName, null);
+    }
+
+    /**
+     * Build a graph from attribute paths in Hibernate graph syntax,
+     * e.g. "departamento, direccion" or "libros(editorial)"
+     *
+     * @param attributePaths the attributes to fetch
+     * @return the fetch graph
+     */
+    public static FetchGraph of(String attributePaths) {
+        return new FetchGraph(null, attributePaths);
+    }
+
+    /**
+     * Resolve this plan into an entity graph usable by the given session
+     */
+    @SuppressWarnings("unchecked")
+    <T> EntityGraph<T> resolve(Session session, Class<T> entityClass) {
+        if (name != null) {
+            RootGraph<?> graph = session.getEntityGraph(name);
+            if (!entityClass.equals(graph.getGraphedType().getJavaType())) {
+                throw new IllegalArgumentException(
+                        "Entity graph " + name + " does not belong to " + entityClass.getSimpleName());
+            }
+            return (EntityGraph<T>) graph;
+        }
+        return GraphParser.parse(entityClass, attributes, session);
+    }
+
+    @Override
+    public String toString() {
+        return name != null ? "FetchGraph[" + name + "]" : "FetchGraph(" + attributes + ")";
+    }
+}
@@ -0,0 +1,649 @@
+package com.libreria.dao;
+
+import com.libreria.database.HibernateUtil;
+import com.libreria.database.TransactionTemplate;
+import com.libreria.monitoring.DaoMetrics;
+import com.libreria.monitoring.OperationMetrics;
+
+import jakarta.persistence.EntityGraph;
+import org.hibernate.Hibernate;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.graph.GraphSemantic;
+import org.hibernate.jpa.SpecHints;
+import org.hibernate.query.MutationQuery;
+import org.hibernate.query.Query;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Base Data Access Object with the operations shared by every entity
+ *
+ * @param <T> the entity type
+ */
+public abstract class GenericDAO<T> {
+
+    /**
+     * Fetch size that switches MySQL Connector/J to row-by-row streaming
+     */
+    public static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    /**
+     * Rows read between persistence context clears when streaming in MySQL streaming mode
+     */
+    private static final int STREAM_CLEAR_INTERVAL = 1000;
+
+    /**
+     * Maximum IDs per DELETE statement in {@link #deleteAllById(Collection)}
+     */
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
+    /**
+     * Attribute paths accepted by {@link #countBy(String, Object)}: dotted Java identifiers
+     */
+    private static final Pattern ATTRIBUTE_PATH = Pattern.compile("[A-Za-z_]\\w*(\\.[A-Za-z_]\\w*)*");
+
+    private final Class<T> entityClass;
+
+    protected GenericDAO(Class<T> entityClass) {
+        this.entityClass = entityClass;
+    }
+
+    /**
+     * @return the entity class managed by this DAO
+     */
+    public Class<T> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * @return the entity name used in HQL queries
+     */
+    protected String getEntityName() {
+        return entityClass.getSimpleName();
+    }
+
+    /**
+     * Find an entity by ID loading the associations of the given fetch graph in the same query
+     *
+     * @param id the entity ID
+     * @param fetchGraph the associations to load
+     * @return the found entity or null if not found
+     */
+    public T findById(Long id, FetchGraph fetchGraph) {
+        return query("findById", session -> {
+            EntityGraph<T> graph = fetchGraph.resolve(session, entityClass);
+            return session.find(entityClass, id, Map.of(SpecHints.HINT_SPEC_FETCH_GRAPH, graph));
+        });
+    }
+
+    /**
+     * Find all entities loading the associations of the given fetch graph in the same query
+     *
+     * @param fetchGraph the associations to load
+     * @return list of all entities
+     */
+    public List<T> findAll(FetchGraph fetchGraph) {
+        return query("findAll", session -> {
+            Query<T> query = session.createQuery("FROM " + getEntityName() + " e ORDER BY e.id", entityClass);
+            query.setEntityGraph(fetchGraph.resolve(session, entityClass), GraphSemantic.FETCH);
+            return query.getResultList();
+        });
+    }
+
+    /**
+     * Find the entities with the given IDs using multi-load
+     * with batches of "hibernate.default_batch_fetch_size" IDs
+     *
+     * @param ids the entity IDs
+     * @return the found entities in the order of the given IDs (missing IDs are skipped)
+     * @see #findAllById(Collection, int)
+     */
+    public List<T> findAllById(Collection<Long> ids) {
+        int batchSize = ((SessionFactoryImplementor) HibernateUtil.getSessionFactory())
+                .getSessionFactoryOptions().getDefaultBatchFetchSize();
+        return findAllById(ids, Math.max(1, batchSize));
+    }
+
+    /**
+     * Find the entities with the given IDs using multi-load.
+     * IDs already in the persistence context or in the second-level cache are served from there;
+     * the rest are loaded with one "IN (...)" query per batch.
+     *
+     * @param ids the entity IDs
+     * @param batchSize maximum IDs per query
+     * @return the found entities in the order of the given IDs (missing IDs are skipped)
+     */
+    public List<T> findAllById(Collection<Long> ids, int batchSize) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> idList = new ArrayList<>(ids);
+        return query("findAllById", session -> session.byMultipleIds(entityClass)
+                .withBatchSize(batchSize)
+                .enableSessionCheck(true)
+                .enableOrderedReturn(true)
+                .multiLoad(idList)
+                .stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(ArrayList::new)));
+    }
+
+    /**
+     * Find the entities with the given IDs loading the associations of the given fetch graph
+     * in the same query
+     *
+     * @param ids the entity IDs
+     * @param fetchGraph the associations to load
+     * @return the found entities ordered by ID (missing IDs are skipped)
+     */
+    public List<T> findAllById(Collection<Long> ids, FetchGraph fetchGraph) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return query("findAllById", session -> {
+            Query<T> query = session.createQuery(
+                    "FROM " + getEntityName() + " e WHERE e.id IN (:ids) ORDER BY e.id", entityClass);
+            query.setParameterList("ids", ids);
+            query.setEntityGraph(fetchGraph.resolve(session, entityClass), GraphSemantic.FETCH);
+            return query.getResultList();
+        });
+    }
+
+    /**
+     * Find one page of entities ordered by ID using keyset pagination.
+     * Each page seeks directly past the last seen ID on the primary key index,
+     * so the cost stays the same no matter how deep into the table the page is.
+     *
+     * @param lastSeenId the nextCursor of the previous page, or null for the first page
+     * @param pageSize maximum number of entities in the page
+     * @return the page with the cursor for the next one
+     */
+    public Page<T> findPage(Long lastSeenId, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive: " + pageSize);
+        }
+        return query("findPage", session -> {
+            Query<T> query;
+            if (lastSeenId == null) {
+                query = session.createQuery("FROM " + getEntityName() + " e ORDER BY e.id", entityClass);
+            } else {
+                query = session.createQuery(
+                        "FROM " + getEntityName() + " e WHERE e.id > :lastSeenId ORDER BY e.id", entityClass);
+                query.setParameter("lastSeenId", lastSeenId);
+            }
+            // One extra row tells whether another page follows
+            List<T> rows = query.setMaxResults(pageSize + 1).getResultList();
+            if (rows.size() <= pageSize) {
+                return new Page<>(rows, null);
+            }
+            List<T> content = new ArrayList<>(rows.subList(0, pageSize));
+            return new Page<>(content, getId(content.get(pageSize - 1)));
+        });
+    }
+
+    /**
+     * Check whether the table has at least one row, reading a single ID
+     *
+     * @return true if there is any entity
+     */
+    public boolean exists() {
+        return query("exists", session -> !session.createQuery("SELECT e.id FROM " + getEntityName() + " e", Long.class)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty());
+    }
+
+    /**
+     * Count the rows of the table with an exact COUNT(*)
+     *
+     * @return number of entities
+     */
+    public long count() {
+        return query("count", session -> session.createQuery("SELECT count(*) FROM " + getEntityName(), Long.class)
+                .getSingleResult());
+    }
+
+    /**
+     * Count the entities whose attribute equals the given value, e.g.
+     * countBy("autor.id", 3L) on LibroDAO or countBy("ciudad", "Madrid") on DireccionDAO
+     *
+     * @param attribute the attribute path, in HQL syntax
+     * @param value the value to compare with, or null to count entities where the attribute is null
+     * @return number of matching entities
+     */
+    public long countBy(String attribute, Object value) {
+        if (!ATTRIBUTE_PATH.matcher(attribute).matches()) {
+            throw new IllegalArgumentException("Invalid attribute path: " + attribute);
+        }
+        return query("countBy", session -> {
+            Query<Long> query;
+            if (value == null) {
+                query = session.createQuery(
+                        "SELECT count(*) FROM " + getEntityName() + " e WHERE e." + attribute + " IS NULL", Long.class);
+            } else {
+                query = session.createQuery(
+                        "SELECT count(*) FROM " + getEntityName() + " e WHERE e." + attribute + " = :value", Long.class);
+                query.setParameter("value", value);
+            }
+            return query.getSingleResult();
+        });
+    }
+
+    /**
+     * Estimate the number of rows from the table statistics kept by MySQL, without scanning the table.
+     * InnoDB's figure is approximate (it can be off by a wide margin on small or freshly loaded tables),
+     * so use it for dashboards and sizing, not for logic. Falls back to {@link #count()}
+     * on databases without these statistics.
+     *
+     * @return estimated number of entities
+     */
+    public long estimateCount() {
+        Dialect dialect = ((SessionFactoryImplementor) HibernateUtil.getSessionFactory()).getJdbcServices().getDialect();
+        if (!(dialect instanceof MySQLDialect)) {
+            return count();
+        }
+        Long estimate = query("estimateCount", session -> session.createNativeQuery(
+                        "SELECT CAST(TABLE_ROWS AS SIGNED) FROM information_schema.TABLES " +
+                                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = :table", Long.class)
+                .setParameter("table", getTableName())
+                .uniqueResult());
+        return estimate != null ? estimate : count();
+    }
+
+    /**
+     * Stream every entity of the table using MySQL streaming mode
+     *
+     * @return a stream that must be closed (try-with-resources) to release its connection
+     * @see #streamAll(int)
+     */
+    public Stream<T> streamAll() {
+        return streamAll(STREAMING_FETCH_SIZE);
+    }
+
+    /**
+     * Stream every entity of the table through a forward-only scroll.
+     * The stream owns a dedicated read-only session, independent from the current one,
+     * holds a transaction permit (see {@link TransactionTemplate}) until it is closed
+     * and clears its persistence context as rows go by so heap usage stays constant.
+     * Entities handed out are detached once the next chunk is read; lazy associations
+     * must not be touched while the stream is open (MySQL allows no other statement
+     * on a connection with an active streaming result set).
+     * The call is recorded in the metrics when the stream is closed.
+     *
+     * @param fetchSize JDBC fetch size, or {@link #STREAMING_FETCH_SIZE} for MySQL row streaming
+     * @return a stream that must be closed (try-with-resources) to release its connection
+     */
+    public Stream<T> streamAll(int fetchSize) {
+        OperationMetrics.Sample sample = metrics("streamAll").start();
+        // The stream holds a connection until it is closed, so it counts against the transaction permits
+        Runnable releasePermit;
+        try {
+            releasePermit = TransactionTemplate.acquirePermit();
+        } catch (RuntimeException e) {
+            sample.stop(0, true);
+            throw e;
+        }
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        Transaction tx = null;
+
+        try {
+            session.setDefaultReadOnly(true);
+            session.doWork(connection -> connection.setReadOnly(true));
+            tx = session.beginTransaction();
+            ScrollableResults<T> results = session.createQuery("FROM " + getEntityName(), entityClass)
+                    .setReadOnly(true)
+                    .setFetchSize(fetchSize)
+                    .scroll(ScrollMode.FORWARD_ONLY);
+            int clearInterval = fetchSize > 0 ? fetchSize : STREAM_CLEAR_INTERVAL;
+            Transaction transaction = tx;
+            long[] count = new long[1];
+
+            Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<>(
+                    Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    if (count[0] > 0 && count[0] % clearInterval == 0) {
+                        session.clear();
+                    }
+                    if (!results.next()) {
+                        return false;
+                    }
+                    count[0]++;
+                    action.accept(results.get());
+                    return true;
+                }
+            };
+            return StreamSupport.stream(spliterator, false).onClose(() -> {
+                try {
+                    results.close();
+                    if (transaction.isActive()) {
+                        transaction.commit();
+                    }
+                } finally {
+                    try {
+                        session.close();
+                    } finally {
+                        releasePermit.run();
+                    }
+                    sample.stop(count[0], false);
+                }
+            });
+        } catch (Exception e) {
+            try {
+                if (tx != null && tx.isActive()) {
+                    tx.rollback();
+                }
+                session.close();
+            } finally {
+                releasePermit.run();
+            }
+            sample.stop(0, true);
+            throw e;
+        }
+    }
+
+    /**
+     * Save a collection of entities using JDBC batching.
+     * The session is flushed every "hibernate.jdbc.batch_size" entities and the flushed
+     * entities are detached, so the entities of every full batch are returned detached.
+     * When saveAll runs its own transaction the whole session is cleared; inside a
+     * caller's unit of work only the batch is detached and the caller's other entities
+     * stay managed. The last partial batch is left to the commit flush.
+     *
+     * @param entities the entities to save
+     * @return the saved entities with their generated IDs
+     */
+    public List<T> saveAll(Collection<T> entities) {
+        boolean ownsTransaction = !HibernateUtil.getSessionFactory().getCurrentSession().getTransaction().isActive();
+        return execute("saveAll", session -> {
+            int batchSize = getJdbcBatchSize(session);
+            List<T> batch = new ArrayList<>(batchSize);
+            for (T entity : entities) {
+                session.persist(entity);
+                batch.add(entity);
+                if (batch.size() == batchSize) {
+                    session.flush();
+                    if (ownsTransaction) {
+                        session.clear();
+                    } else {
+                        batch.forEach(session::detach);
+                    }
+                    batch.clear();
+                }
+            }
+            return new ArrayList<>(entities);
+        });
+    }
+
+    /**
+     * Update some attributes of one entity with a single UPDATE statement,
+     * without loading it first and touching only the given columns.
+     * Hibernate evicts the cached copies of the entity type and the affected query results.
+     *
+     * @param id the entity ID
+     * @param values new value per attribute name
+     * @return number of rows updated: 0 if no entity has that ID
+     */
+    public int updateFields(Long id, Map<String, ?> values) {
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("No attributes to update");
+        }
+        List<String> attributes = new ArrayList<>(values.keySet());
+        StringBuilder hql = new StringBuilder("UPDATE ").append(getEntityName()).append(" e SET ");
+        for (int i = 0; i < attributes.size(); i++) {
+            if (!ATTRIBUTE_PATH.matcher(attributes.get(i)).matches()) {
+                throw new IllegalArgumentException("Invalid attribute: " + attributes.get(i));
+            }
+            hql.append(i > 0 ? ", " : "").append("e.").append(attributes.get(i)).append(" = :v").append(i);
+        }
+        hql.append(" WHERE e.id = :id");
+
+        return execute("updateFields", session -> {
+            MutationQuery query = session.createMutationQuery(hql.toString());
+            for (int i = 0; i < attributes.size(); i++) {
+                query.setParameter("v" + i, values.get(attributes.get(i)));
+            }
+            return query.setParameter("id", id).executeUpdate();
+        });
+    }
+
+    /**
+     * Set one column on many rows with a JDBC batch of "UPDATE ... WHERE id = ?" statements,
+     * without loading the entities. Pending changes are flushed first; the cached entities
+     * and query results that read the table are cleaned up when the transaction completes.
+     *
+     * @param column the column to update
+     * @param valuesById new value per entity ID
+     * @return the IDs that matched no row
+     */
+    protected List<Long> updateColumn(String column, Map<Long, ?> valuesById) {
+        if (valuesById.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String table = getTableName();
+        String sql = "UPDATE " + table + " SET " + column + " = ? WHERE " + getIdColumnName() + " = ?";
+        return execute("updateColumn", session -> {
+            session.flush();
+            int batchSize = getJdbcBatchSize(session);
+            List<Long> ids = new ArrayList<>(valuesById.keySet());
+            List<Long> missing = new ArrayList<>();
+            session.doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    for (int start = 0; start < ids.size(); start += batchSize) {
+                        List<Long> chunk = ids.subList(start, Math.min(start + batchSize, ids.size()));
+                        for (Long id : chunk) {
+                            statement.setObject(1, valuesById.get(id));
+                            statement.setLong(2, id);
+                            statement.addBatch();
+                        }
+                        int[] counts = statement.executeBatch();
+                        for (int i = 0; i < counts.length; i++) {
+                            if (counts[i] == 0) {
+                                missing.add(chunk.get(i));
+                            }
+                        }
+                    }
+                }
+            });
+            JdbcWriteCleanup.schedule(session, table, List.of());
+            return missing;
+        });
+    }
+
+    /**
+     * @param session the current session
+     * @return the configured "hibernate.jdbc.batch_size", at least 1
+     */
+    private static int getJdbcBatchSize(Session session) {
+        return Math.max(1, ((SessionFactoryImplementor) session.getSessionFactory())
+                .getSessionFactoryOptions().getJdbcBatchSize());
+    }
+
+    /**
+     * Delete an entity by ID without loading it
+     *
+     * @param id the entity ID
+     * @return true if a row was deleted
+     * @see #deleteAllById(Collection)
+     */
+    public boolean deleteById(Long id) {
+        return deleteAllById(List.of(id)) > 0;
+    }
+
+    /**
+     * Delete entities by ID with set-based statements, without loading them or walking cascades.
+     * For each chunk of {@value #DELETE_CHUNK_SIZE} IDs, the rows of the join tables that reference
+     * the entities (see {@link #getJoinTableColumns()}) are deleted first, then the entity rows
+     * (see {@link #deleteChunk(Session, List)}). Rows still referenced through a foreign key
+     * make the statement fail, as with delete().
+     * Hibernate evicts the affected second-level cache regions and query results; entities of
+     * this type already loaded in the current session are not detached.
+     *
+     * @param ids the entity IDs
+     * @return number of entities deleted
+     */
+    public int deleteAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        return execute("deleteAllById", session -> {
+            session.flush();
+            int deleted = 0;
+            for (int start = 0; start < distinctIds.size(); start += DELETE_CHUNK_SIZE) {
+                deleted += deleteChunk(session, distinctIds.subList(start, Math.min(start + DELETE_CHUNK_SIZE, distinctIds.size())));
+            }
+            return deleted;
+        });
+    }
+
+    /**
+     * Delete one chunk of {@link #deleteAllById(Collection)}: the join table rows, then the entity rows.
+     * Subclasses that own other rows delete them here, so they are bounded by the same chunk size.
+     *
+     * @param session the current session
+     * @param ids at most {@value #DELETE_CHUNK_SIZE} distinct entity IDs
+     * @return number of entities deleted
+     */
+    protected int deleteChunk(Session session, List<Long> ids) {
+        for (Map.Entry<String, String> joinTable : getJoinTableColumns().entrySet()) {
+            deleteIn(session, joinTable.getKey(), joinTable.getValue(), ids);
+        }
+        return deleteIn(session, getTableName(), getIdColumnName(), ids);
+    }
+
+    /**
+     * Join tables holding rows that reference this entity and must be deleted with it
+     *
+     * @return the referencing column per join table
+     */
+    protected Map<String, String> getJoinTableColumns() {
+        return Map.of();
+    }
+
+    /**
+     * Run "DELETE FROM table WHERE column IN (ids)" keeping Hibernate caches in sync
+     * through the table's query space
+     */
+    protected int deleteIn(Session session, String table, String column, Collection<Long> ids) {
+        return session.createNativeQuery("DELETE FROM " + table + " WHERE " + column + " IN (:ids)", Void.class)
+                .setParameterList("ids", ids)
+                .addSynchronizedQuerySpace(table)
+                .executeUpdate();
+    }
+
+    /**
+     * Initialize associations of already loaded entities in a second phase.
+     * With "hibernate.default_batch_fetch_size" each initialization loads the same
+     * association for a whole batch of entities with one "IN (...)" query keyed on
+     * the parent IDs, so only child rows travel and no parent row is repeated.
+     * Must be called while the session that loaded the entities is still open.
+     *
+     * @param entities the loaded entities
+     * @param associations accessors of the associations to initialize
+     */
+    @SafeVarargs
+    protected final void initializeAll(List<T> entities, Function<T, ?>... associations) {
+        for (Function<T, ?> association : associations) {
+            for (T entity : entities) {
+                Hibernate.initialize(association.apply(entity));
+            }
+        }
+    }
+
+    /**
+     * Run a DAO query in a read-only transaction, joining the caller's unit of work if there is one.
+     * Entities come back without dirty-checking snapshots and the session is never flushed.
+     * The call is recorded in the metrics of the given operation.
+     *
+     * @param operation the DAO method name, used for metrics
+     * @param work the query to run with the current session
+     * @param <R> the result type
+     * @return the result of the query
+     */
+    protected <R> R query(String operation, Function<Session, R> work) {
+        return metrics(operation).record(() -> TransactionTemplate.readOnly().execute(work));
+    }
+
+    /**
+     * Run DAO work in a read-write transaction, joining the caller's unit of work if there is one.
+     * The call is recorded in the metrics of the given operation.
+     *
+     * @param operation the DAO method name, used for metrics
+     * @param work the work to run with the current session
+     * @param <R> the result type
+     * @return the result of the work
+     */
+    protected <R> R execute(String operation, Function<Session, R> work) {
+        return metrics(operation).record(() -> TransactionTemplate.readWrite().execute(work));
+    }
+
+    /**
+     * Run DAO work without a result in a read-write transaction
+     *
+     * @param operation the DAO method name, used for metrics
+     * @param work the work to run with the current session
+     */
+    protected void executeWithoutResult(String operation, Consumer<Session> work) {
+        execute(operation, session -> {
+            work.accept(session);
+            return null;
+        });
+    }
+
+    /**
+     * @param operation the DAO method name
+     * @return the metrics of that method of this DAO
+     */
+    protected OperationMetrics metrics(String operation) {
+        return DaoMetrics.operation(getClass(), operation, entityClass);
+    }
+
+    /**
+     * @return the table the entity is mapped to
+     */
+    protected String getTableName() {
+        return ((SessionFactoryImplementor) HibernateUtil.getSessionFactory()).getMappingMetamodel()
+                .getEntityDescriptor(entityClass)
+                .getMappedTableDetails()
+                .getTableName();
+    }
+
+    /**
+     * @return the primary key column of the entity table
+     */
+    protected String getIdColumnName() {
+        return ((SessionFactoryImplementor) HibernateUtil.getSessionFactory()).getMappingMetamodel()
+                .getEntityDescriptor(entityClass)
+                .getMappedTableDetails()
+                .getKeyDetails()
+                .getKeyColumn(0)
+                .getColumnName();
+    }
+
+    /**
+     * Read the identifier of an entity through the session factory metadata
+     */
+    protected Long getId(T entity) {
+        return (Long) HibernateUtil.getSessionFactory().getPersistenceUnitUtil().getIdentifier(entity);
+    }
+}
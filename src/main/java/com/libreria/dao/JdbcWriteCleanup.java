@@ -0,0 +1,48 @@
+package com.libreria.dao;
+
+import org.hibernate.Session;
+import org.hibernate.action.internal.BulkOperationCleanupAction;
+import org.hibernate.cache.spi.access.CollectionDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.persister.collection.CollectionPersister;
+
+import java.util.Set;
+
+/**
+ * Second-level cache cleanup after rows were written with plain JDBC, done the way
+ * Hibernate cleans up after its own native {@code executeUpdate}: the affected regions
+ * are locked and cleared now and only unlocked, together with the invalidation of cached
+ * query results, when the transaction completes. Until then concurrent readers go to the
+ * database and cannot put the old rows back in the cache.
+ */
+final class JdbcWriteCleanup {
+
+    private JdbcWriteCleanup() {
+    }
+
+    /**
+     * Schedule the cleanup for a JDBC write on the session's current transaction
+     *
+     * @param session the session that ran the write
+     * @param table the table written; cached entities mapped on it are cleared
+     * @param collectionRoles cached collections mapped on the table that no entity owns (join tables)
+     */
+    static void schedule(Session session, String table, Iterable<String> collectionRoles) {
+        SharedSessionContractImplementor sessionImplementor = (SharedSessionContractImplementor) session;
+        BulkOperationCleanupAction.schedule(sessionImplementor, Set.of(table));
+        SessionFactoryImplementor sessionFactory = sessionImplementor.getFactory();
+        for (String role : collectionRoles) {
+            CollectionPersister persister = sessionFactory.getMappingMetamodel().getCollectionDescriptor(role);
+            if (persister.hasCache()) {
+                CollectionDataAccess cacheAccess = persister.getCacheAccessStrategy();
+                SoftLock lock = cacheAccess.lockRegion();
+                cacheAccess.removeAll(sessionImplementor);
+                ((EventSource) session).getActionQueue()
+                        .registerProcess((success, completedSession) -> cacheAccess.unlockRegion(lock));
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.libreria.dao;
+
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes rows of a many-to-many join table directly with JDBC batches,
+ * without loading either side of the association.
+ * Pending changes of the session are flushed first so the rows can reference
+ * entities persisted in the same unit of work. Collections already loaded in
+ * the session are not refreshed; their second-level cache entries and cached
+ * query results that read the join table are cleaned up when the transaction
+ * completes, see {@link JdbcWriteCleanup}.
+ */
+final class JoinTableBatch {
+
+    private final String table;
+    private final String insertSql;
+    private final String deleteSql;
+    private final List<String> collectionRoles;
+
+    /**
+     * @param table the join table
+     * @param ownerColumn column holding the first ID of each pair
+     * @param elementColumn column holding the second ID of each pair
+     * @param collectionRoles the collections mapped on this table (e.g. "com.libreria.model.Libro.librerias")
+     */
+    JoinTableBatch(String table, String ownerColumn, String elementColumn, String... collectionRoles) {
+        this.table = table;
+        // The join table's primary key covers both columns: an existing pair is left untouched
+        this.insertSql = "INSERT INTO " + table + " (" + ownerColumn + ", " + elementColumn + ") VALUES (?, ?)"
+                + " ON DUPLICATE KEY UPDATE " + elementColumn + " = " + elementColumn;
+        this.deleteSql = "DELETE FROM " + table + " WHERE " + ownerColumn + " = ? AND " + elementColumn + " = ?";
+        this.collectionRoles = List.of(collectionRoles);
+    }
+
+    /**
+     * Insert the given pairs, skipping those already present
+     *
+     * @param session the current session
+     * @param pairs owner ID to element ID
+     */
+    void insert(Session session, Collection<Map.Entry<Long, Long>> pairs) {
+        execute(session, insertSql, pairs);
+    }
+
+    /**
+     * Delete the given pairs, ignoring those not present
+     *
+     * @param session the current session
+     * @param pairs owner ID to element ID
+     */
+    void delete(Session session, Collection<Map.Entry<Long, Long>> pairs) {
+        execute(session, deleteSql, pairs);
+    }
+
+    /**
+     * Pair one owner with each of the given elements
+     *
+     * @param ownerId the owner ID
+     * @param elementIds the element IDs
+     * @return the pairs, without duplicates
+     */
+    static List<Map.Entry<Long, Long>> pairs(Long ownerId, Collection<Long> elementIds) {
+        return elementIds.stream()
+                .distinct()
+                .map(elementId -> Map.entry(ownerId, elementId))
+                .toList();
+    }
+
+    /**
+     * Pair every owner with each of its elements
+     *
+     * @param elementIdsByOwnerId element IDs grouped by owner ID
+     * @return the pairs, without duplicates
+     */
+    static List<Map.Entry<Long, Long>> pairs(Map<Long, ? extends Collection<Long>> elementIdsByOwnerId) {
+        return elementIdsByOwnerId.entrySet().stream()
+                .flatMap(entry -> pairs(entry.getKey(), entry.getValue()).stream())
+                .toList();
+    }
+
+    private void execute(Session session, String sql, Collection<Map.Entry<Long, Long>> pairs) {
+        if (pairs.isEmpty()) {
+            return;
+        }
+        session.flush();
+        SessionFactoryImplementor sessionFactory = (SessionFactoryImplementor) session.getSessionFactory();
+        int batchSize = Math.max(1, sessionFactory.getSessionFactoryOptions().getJdbcBatchSize());
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                int count = 0;
+                for (Map.Entry<Long, Long> pair : pairs) {
+                    statement.setLong(1, pair.getKey());
+                    statement.setLong(2, pair.getValue());
+                    statement.addBatch();
+                    if (++count % batchSize == 0) {
+                        statement.executeBatch();
+                    }
+                }
+                if (count % batchSize != 0) {
+                    statement.executeBatch();
+                }
+            }
+        });
+        JdbcWriteCleanup.schedule(session, table, collectionRoles);
+    }
+}
@@ -1,21 +1,30 @@
 package com.libreria.dao;
 
-import com.libreria.database.HibernateUtil;
+import com.libreria.dto.LibreriaLibroDTO;
 import com.libreria.model.Libreria;
-
-import com.libreria.model.Libro;
-import org.hibernate.Session;
-import org.hibernate.Transaction;
 import org.hibernate.query.Query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for Libreria entity
  */
-public class LibreriaDAO {
+public class LibreriaDAO extends GenericDAO<Libreria> {
+
+    private static final JoinTableBatch LIBRERIA_LIBRO = new JoinTableBatch(
+            "LIBRERIA_LIBRO", "libreria_id", "libro_id",
+            "com.libreria.model.Libreria.libros", "com.libreria.model.Libro.librerias");
+
+    public LibreriaDAO() {
+        super(Libreria.class);
+    }
 
-    private Session session;
+    @Override
+    protected Map<String, String> getJoinTableColumns() {
+        return Map.of("LIBRERIA_LIBRO", "libreria_id");
+    }
 
     /**
      * Save a bookstore to the database
@@ -24,26 +33,34 @@ public class LibreriaDAO {
      * @return the saved bookstore with generated ID
      */
     public Libreria save(Libreria libreria) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        return execute("save", session -> {
             session.persist(libreria);
-            if (!existingTransaction) {
-                tx.commit();
-            }
             return libreria;
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
+    }
+
+    /**
+     * Add many books to a bookstore by inserting the join rows in JDBC batches,
+     * without loading the bookstore, the books or either collection.
+     * Books already in the bookstore are skipped.
+     *
+     * @param libreriaId the bookstore ID
+     * @param libroIds the IDs of the books to add
+     */
+    public void addBooks(Long libreriaId, Collection<Long> libroIds) {
+        executeWithoutResult("addBooks", session -> LIBRERIA_LIBRO.insert(session, JoinTableBatch.pairs(libreriaId, libroIds)));
+    }
+
+    /**
+     * Remove many books from a bookstore by deleting the join rows in JDBC batches,
+     * without loading the bookstore, the books or either collection.
+     * Books not in the bookstore are ignored.
+     *
+     * @param libreriaId the bookstore ID
+     * @param libroIds the IDs of the books to remove
+     */
+    public void removeBooks(Long libreriaId, Collection<Long> libroIds) {
+        executeWithoutResult("removeBooks", session -> LIBRERIA_LIBRO.delete(session, JoinTableBatch.pairs(libreriaId, libroIds)));
     }
 
     /**
@@ -53,21 +70,7 @@ public class LibreriaDAO {
      * @return the found bookstore or null if not found
      */
     public Libreria findById(Long id) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
-            Libreria libreria = session.get(Libreria.class, id);
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return libreria;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        return query("findById", session -> session.get(Libreria.class, id));
     }
 
     /**
@@ -76,22 +79,10 @@ public class LibreriaDAO {
      * @return list of all bookstores
      */
     public List<Libreria> findAll() {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        return query("findAll", session -> {
             Query<Libreria> query = session.createNamedQuery("Libreria.findAll", Libreria.class);
-            List<Libreria> result = query.getResultList();
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return result;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+            return query.getResultList();
+        });
     }
 
     /**
@@ -100,25 +91,12 @@ public class LibreriaDAO {
      * @return list of bookstores with their books
      */
     public List<Libreria> findAllWithBooks() {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
-            Query<Libreria> query = session.createQuery(
-                    "SELECT DISTINCT l FROM Libreria l LEFT JOIN FETCH l.libros",
-                    Libreria.class
-            );
+        return query("findAllWithBooks", session -> {
+            Query<Libreria> query = session.createNamedQuery("Libreria.findAll", Libreria.class);
             List<Libreria> result = query.getResultList();
-            if (!existingTransaction) {
-                tx.commit();
-            }
+            initializeAll(result, Libreria::getLibros);
             return result;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
     }
 
     /**
@@ -128,26 +106,7 @@ public class LibreriaDAO {
      * @return the updated bookstore
      */
     public Libreria update(Libreria libreria) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
-            Libreria updatedLibreria = session.merge(libreria);
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return updatedLibreria;
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        return execute("update", session -> session.merge(libreria));
     }
 
     /**
@@ -156,75 +115,74 @@ public class LibreriaDAO {
      * @param id the bookstore ID to delete
      */
     public void delete(Long id) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        executeWithoutResult("delete", session -> {
             Libreria libreria = session.get(Libreria.class, id);
             if (libreria != null) {
                 session.remove(libreria);
             }
-            if (!existingTransaction) {
-                tx.commit();
-            }
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
     }
 
     /**
-     * Add a book to a bookstore - FIXED VERSION
-     * This method properly manages both sides of the relationship and ensures
-     * that changes are properly persisted to the database.
+     * Add a book to a bookstore by inserting its join row, see {@link #addBooks(Long, Collection)}
      *
      * @param libreriaId the bookstore ID
      * @param libroId the book ID to add
-     * @return updated Libreria instance
      */
-    public Libreria addBook(Long libreriaId, Long libroId) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
-            // Get fresh instances from this session
-            Libreria libreria = session.get(Libreria.class, libreriaId);
-            Libro libro = session.get(Libro.class, libroId);
-
-            if (libreria != null && libro != null) {
-                // Use helper method to maintain bidirectional relationship
-                libreria.addLibro(libro);
-
-                // Explicitly merge the entities back to the session
-                session.merge(libreria);
-                session.merge(libro);
-
-                // Flush to ensure SQL is sent to the database
-                session.flush();
-            }
+    public void addBook(Long libreriaId, Long libroId) {
+        addBooks(libreriaId, List.of(libroId));
+    }
 
-            if (!existingTransaction) {
-                tx.commit();
-            }
+    /**
+     * Find every bookstore paired with its books as read-only rows
+     *
+     * @return one projection per bookstore-book pair, ordered by bookstore
+     */
+    public List<LibreriaLibroDTO> findAllWithBooksProjection() {
+        return query("findAllWithBooksProjection", session -> {
+            Query<LibreriaLibroDTO> query = session.createQuery(
+                    "SELECT new com.libreria.dto.LibreriaLibroDTO(" +
+                            "lb.id, lb.nombre, lb.nombreDueno, lb.direccion, l.id, l.titulo, l.precio) " +
+                            "FROM Libreria lb LEFT JOIN lb.libros l " +
+                            "ORDER BY lb.id, l.id",
+                    LibreriaLibroDTO.class
+            );
+            return query.getResultList();
+        });
+    }
 
-            return libreria;
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+    /**
+     * Check whether a book is in a bookstore with a single query on the join table,
+     * without loading either collection
+     *
+     * @param libreriaId the bookstore ID
+     * @param libroId the book ID
+     * @return true if the bookstore has the book
+     */
+    public boolean containsBook(Long libreriaId, Long libroId) {
+        return query("containsBook", session -> {
+            Query<Long> query = session.createQuery(
+                    "SELECT count(*) FROM Libreria lb JOIN lb.libros l " +
+                            "WHERE lb.id = :libreriaId AND l.id = :libroId",
+                    Long.class);
+            query.setParameter("libreriaId", libreriaId);
+            query.setParameter("libroId", libroId);
+            return query.getSingleResult() > 0;
+        });
+    }
+
+    /**
+     * Count the books of a bookstore without loading the collection
+     *
+     * @param libreriaId the bookstore ID
+     * @return number of books in the bookstore
+     */
+    public long countBooks(Long libreriaId) {
+        return query("countBooks", session -> {
+            Query<Integer> query = session.createQuery(
+                    "SELECT size(lb.libros) FROM Libreria lb WHERE lb.id = :libreriaId", Integer.class);
+            query.setParameter("libreriaId", libreriaId);
+            return query.uniqueResultOptional().orElse(0);
+        });
     }
-}
\ No newline at end of file
+}
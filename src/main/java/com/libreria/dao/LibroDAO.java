@@ -1,20 +1,28 @@
 package com.libreria.dao;
 
-import com.libreria.database.HibernateUtil;
+import com.libreria.dto.LibreriaLibroDTO;
+import com.libreria.dto.LibroEditorialAutorDTO;
 import com.libreria.model.Libro;
 
-import org.hibernate.Session;
-import org.hibernate.Transaction;
 import org.hibernate.query.Query;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for Libro entity
  */
-public class LibroDAO {
+public class LibroDAO extends GenericDAO<Libro> {
 
-    private Session session;
+    public LibroDAO() {
+        super(Libro.class);
+    }
+
+    @Override
+    protected Map<String, String> getJoinTableColumns() {
+        return Map.of("LIBRERIA_LIBRO", "libro_id");
+    }
 
     /**
      * Save a book to the database
@@ -23,26 +31,10 @@ public class LibroDAO {
      * @return the saved book with generated ID
      */
     public Libro save(Libro libro) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        return execute("save", session -> {
             session.persist(libro);
-            if (!existingTransaction) {
-                tx.commit();
-            }
             return libro;
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
     }
 
     /**
@@ -52,21 +44,7 @@ public class LibroDAO {
      * @return the found book or null if not found
      */
     public Libro findById(Long id) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
-            Libro libro = session.get(Libro.class, id);
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return libro;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        return query("findById", session -> session.get(Libro.class, id));
     }
 
     /**
@@ -75,22 +53,10 @@ public class LibroDAO {
      * @return list of all books
      */
     public List<Libro> findAll() {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        return query("findAll", session -> {
             Query<Libro> query = session.createNamedQuery("Libro.findAll", Libro.class);
-            List<Libro> result = query.getResultList();
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return result;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+            return query.getResultList();
+        });
     }
 
     /**
@@ -99,27 +65,37 @@ public class LibroDAO {
      * @return list of books with publisher and author
      */
     public List<Libro> findAllWithPublisherAndAuthor() {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        return query("findAllWithPublisherAndAuthor", session -> {
             Query<Libro> query = session.createQuery(
                     "SELECT DISTINCT l FROM Libro l " +
                             "JOIN FETCH l.editorial " +
                             "JOIN FETCH l.autor",
                     Libro.class
             );
+            return query.getResultList();
+        });
+    }
+
+    /**
+     * Find the full catalog view: every book with its publisher, author and bookstores.
+     * Publisher and author are single-valued and join-fetched in the main query;
+     * bookstores are loaded in a second, ID-batched phase so rows never multiply.
+     *
+     * @return list of books with publisher, author and bookstores initialized
+     */
+    public List<Libro> findCatalog() {
+        return query("findCatalog", session -> {
+            Query<Libro> query = session.createQuery(
+                    "SELECT l FROM Libro l " +
+                            "JOIN FETCH l.editorial " +
+                            "JOIN FETCH l.autor " +
+                            "ORDER BY l.id",
+                    Libro.class
+            );
             List<Libro> result = query.getResultList();
-            if (!existingTransaction) {
-                tx.commit();
-            }
+            initializeAll(result, Libro::getLibrerias);
             return result;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
     }
 
     /**
@@ -128,25 +104,12 @@ public class LibroDAO {
      * @return list of books with their bookstores
      */
     public List<Libro> findAllWithBookstores() {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
-            Query<Libro> query = session.createQuery(
-                    "SELECT DISTINCT l FROM Libro l LEFT JOIN FETCH l.librerias",
-                    Libro.class
-            );
+        return query("findAllWithBookstores", session -> {
+            Query<Libro> query = session.createNamedQuery("Libro.findAll", Libro.class);
             List<Libro> result = query.getResultList();
-            if (!existingTransaction) {
-                tx.commit();
-            }
+            initializeAll(result, Libro::getLibrerias);
             return result;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
     }
 
     /**
@@ -156,26 +119,7 @@ public class LibroDAO {
      * @return the updated book
      */
     public Libro update(Libro libro) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
-            Libro updatedLibro = session.merge(libro);
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return updatedLibro;
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        return execute("update", session -> session.merge(libro));
     }
 
     /**
@@ -184,27 +128,102 @@ public class LibroDAO {
      * @param id the book ID to delete
      */
     public void delete(Long id) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        executeWithoutResult("delete", session -> {
             Libro libro = session.get(Libro.class, id);
             if (libro != null) {
                 session.remove(libro);
             }
-            if (!existingTransaction) {
-                tx.commit();
-            }
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
+    }
+
+    /**
+     * Find title, price, publisher and author of every book as read-only rows
+     *
+     * @return one projection per book
+     */
+    public List<LibroEditorialAutorDTO> findAllWithPublisherAndAuthorProjection() {
+        return query("findAllWithPublisherAndAuthorProjection", session -> {
+            Query<LibroEditorialAutorDTO> query = session.createQuery(
+                    "SELECT new com.libreria.dto.LibroEditorialAutorDTO(" +
+                            "l.titulo, l.precio, e.nombre, a.nombre, a.apellidos) " +
+                            "FROM Libro l JOIN l.editorial e JOIN l.autor a " +
+                            "ORDER BY l.id",
+                    LibroEditorialAutorDTO.class
+            );
+            return query.getResultList();
+        });
+    }
+
+    /**
+     * Find every book paired with the bookstores that stock it as read-only rows
+     *
+     * @return one projection per book-bookstore pair, ordered by book
+     */
+    public List<LibreriaLibroDTO> findAllWithBookstoresProjection() {
+        return query("findAllWithBookstoresProjection", session -> {
+            Query<LibreriaLibroDTO> query = session.createQuery(
+                    "SELECT new com.libreria.dto.LibreriaLibroDTO(" +
+                            "lb.id, lb.nombre, lb.nombreDueno, lb.direccion, l.id, l.titulo, l.precio) " +
+                            "FROM Libro l LEFT JOIN l.librerias lb " +
+                            "ORDER BY l.id, lb.id",
+                    LibreriaLibroDTO.class
+            );
+            return query.getResultList();
+        });
+    }
+
+    /**
+     * Find the books with the given title
+     * Served from the query cache while LIBROS is unchanged.
+     *
+     * @param titulo the exact title
+     * @return the matching books
+     */
+    public List<Libro> findByTitulo(String titulo) {
+        return query("findByTitulo", session -> {
+            Query<Libro> query = session.createNamedQuery("Libro.findByTitulo", Libro.class);
+            query.setParameter("titulo", titulo);
+            return query.getResultList();
+        });
+    }
+
+    /**
+     * Find the books written by an author
+     * Served from the query cache while LIBROS is unchanged.
+     *
+     * @param autorId the author ID
+     * @return the author's books
+     */
+    public List<Libro> findByAutorId(Long autorId) {
+        return query("findByAutorId", session -> {
+            Query<Libro> query = session.createNamedQuery("Libro.findByAutorId", Libro.class);
+            query.setParameter("autorId", autorId);
+            return query.getResultList();
+        });
+    }
+
+    /**
+     * Find the books published by a publisher
+     * Served from the query cache while LIBROS is unchanged.
+     *
+     * @param editorialId the publisher ID
+     * @return the publisher's books
+     */
+    public List<Libro> findByEditorialId(Long editorialId) {
+        return query("findByEditorialId", session -> {
+            Query<Libro> query = session.createNamedQuery("Libro.findByEditorialId", Libro.class);
+            query.setParameter("editorialId", editorialId);
+            return query.getResultList();
+        });
+    }
+
+    /**
+     * Reprice many books with batched column-level UPDATEs, without loading them
+     *
+     * @param preciosById new price per book ID
+     * @return the IDs that matched no book
+     */
+    public List<Long> updatePrecios(Map<Long, BigDecimal> preciosById) {
+        return updateColumn("precio", preciosById);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,30 @@
+package com.libreria.dao;
+
+import com.libreria.monitoring.RowCounted;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (seek-by-id) scan
+ *
+ * @param content the entities of this page, ordered by ID
+ * @param nextCursor the ID to pass as "last seen id" for the next page, or null if this is the last page
+ * @param <T> the entity type
+ */
+public record Page<T>(List<T> content, Long nextCursor) implements RowCounted {
+
+    /**
+     * @return true if there are more rows after this page
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * @return the number of entities in this page
+     */
+    @Override
+    public long rowCount() {
+        return content.size();
+    }
+}
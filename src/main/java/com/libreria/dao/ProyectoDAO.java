@@ -1,20 +1,26 @@
 package com.libreria.dao;
 
-import com.libreria.database.HibernateUtil;
+import com.libreria.dto.ProyectoEmpleadoDTO;
 import com.libreria.model.Proyecto;
 
-import org.hibernate.Session;
-import org.hibernate.Transaction;
 import org.hibernate.query.Query;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for Proyecto entity
  */
-public class ProyectoDAO {
+public class ProyectoDAO extends GenericDAO<Proyecto> {
 
-    private Session session;
+    public ProyectoDAO() {
+        super(Proyecto.class);
+    }
+
+    @Override
+    protected Map<String, String> getJoinTableColumns() {
+        return Map.of("EMPLEADO_PROYECTO", "proyecto_id");
+    }
 
     /**
      * Save a project to the database
@@ -23,26 +29,10 @@ public class ProyectoDAO {
      * @return the saved project with generated ID
      */
     public Proyecto save(Proyecto proyecto) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        return execute("save", session -> {
             session.persist(proyecto);
-            if (!existingTransaction) {
-                tx.commit();
-            }
             return proyecto;
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
     }
 
     /**
@@ -52,21 +42,7 @@ public class ProyectoDAO {
      * @return the found project or null if not found
      */
     public Proyecto findById(Long id) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
-            Proyecto proyecto = session.get(Proyecto.class, id);
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return proyecto;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        return query("findById", session -> session.get(Proyecto.class, id));
     }
 
     /**
@@ -75,22 +51,10 @@ public class ProyectoDAO {
      * @return list of all projects
      */
     public List<Proyecto> findAll() {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        return query("findAll", session -> {
             Query<Proyecto> query = session.createNamedQuery("Proyecto.findAll", Proyecto.class);
-            List<Proyecto> result = query.getResultList();
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return result;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+            return query.getResultList();
+        });
     }
 
     /**
@@ -99,25 +63,12 @@ public class ProyectoDAO {
      * @return list of projects with their employees
      */
     public List<Proyecto> findAllWithEmployees() {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
-            Query<Proyecto> query = session.createQuery(
-                    "SELECT DISTINCT p FROM Proyecto p LEFT JOIN FETCH p.empleados",
-                    Proyecto.class
-            );
+        return query("findAllWithEmployees", session -> {
+            Query<Proyecto> query = session.createNamedQuery("Proyecto.findAll", Proyecto.class);
             List<Proyecto> result = query.getResultList();
-            if (!existingTransaction) {
-                tx.commit();
-            }
+            initializeAll(result, Proyecto::getEmpleados);
             return result;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
     }
 
     /**
@@ -127,26 +78,7 @@ public class ProyectoDAO {
      * @return the updated project
      */
     public Proyecto update(Proyecto proyecto) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
-            Proyecto updatedProyecto = session.merge(proyecto);
-            if (!existingTransaction) {
-                tx.commit();
-            }
-            return updatedProyecto;
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        return execute("update", session -> session.merge(proyecto));
     }
 
     /**
@@ -155,27 +87,64 @@ public class ProyectoDAO {
      * @param id the project ID to delete
      */
     public void delete(Long id) {
-        session = HibernateUtil.getSessionFactory().getCurrentSession();
-        boolean existingTransaction = session.getTransaction().isActive();
-        Transaction tx = existingTransaction ? session.getTransaction() : session.beginTransaction();
-
-        try {
+        executeWithoutResult("delete", session -> {
             Proyecto proyecto = session.get(Proyecto.class, id);
             if (proyecto != null) {
                 session.remove(proyecto);
             }
-            if (!existingTransaction) {
-                tx.commit();
-            }
-        } catch (Exception e) {
-            if (!existingTransaction && tx != null && tx.isActive()) {
-                tx.rollback();
-            }
-            throw e;
-        } finally {
-            if (!existingTransaction && session.isOpen()) {
-                session.close();
-            }
-        }
+        });
+    }
+
+    /**
+     * Find every project paired with its employees as read-only rows
+     *
+     * @return one projection per project-employee pair, ordered by project
+     */
+    public List<ProyectoEmpleadoDTO> findAllWithEmployeesProjection() {
+        return query("findAllWithEmployeesProjection", session -> {
+            Query<ProyectoEmpleadoDTO> query = session.createQuery(
+                    "SELECT new com.libreria.dto.ProyectoEmpleadoDTO(" +
+                            "p.id, p.nombre, p.descripcion, p.presupuesto, e.id, e.nombre, e.apellido, e.email) " +
+                            "FROM Proyecto p LEFT JOIN p.empleados e " +
+                            "ORDER BY p.id, e.id",
+                    ProyectoEmpleadoDTO.class
+            );
+            return query.getResultList();
+        });
+    }
+
+    /**
+     * Check whether an employee is assigned to a project with a single query on the join table,
+     * without loading either collection
+     *
+     * @param proyectoId the project ID
+     * @param empleadoId the employee ID
+     * @return true if the employee is assigned to the project
+     */
+    public boolean containsEmpleado(Long proyectoId, Long empleadoId) {
+        return query("containsEmpleado", session -> {
+            Query<Long> query = session.createQuery(
+                    "SELECT count(*) FROM Proyecto p JOIN p.empleados e " +
+                            "WHERE p.id = :proyectoId AND e.id = :empleadoId",
+                    Long.class);
+            query.setParameter("proyectoId", proyectoId);
+            query.setParameter("empleadoId", empleadoId);
+            return query.getSingleResult() > 0;
+        });
+    }
+
+    /**
+     * Count the employees assigned to a project without loading the collection
+     *
+     * @param proyectoId the project ID
+     * @return number of employees assigned to the project
+     */
+    public long countEmpleados(Long proyectoId) {
+        return query("countEmpleados", session -> {
+            Query<Integer> query = session.createQuery(
+                    "SELECT size(p.empleados) FROM Proyecto p WHERE p.id = :proyectoId", Integer.class);
+            query.setParameter("proyectoId", proyectoId);
+            return query.uniqueResultOptional().orElse(0);
+        });
     }
-}
\ No newline at end of file
+}
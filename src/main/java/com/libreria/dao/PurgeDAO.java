@@ -0,0 +1,140 @@
+package com.libreria.dao;
+
+import com.libreria.database.HibernateUtil;
+import com.libreria.database.TransactionTemplate;
+import com.libreria.monitoring.DaoMetrics;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Data Access Object for set-based bulk deletion of whole tables.
+ * Tables must be given in foreign key order: join tables first, then children, then parents.
+ */
+public class PurgeDAO {
+
+    /**
+     * Default number of rows removed per DELETE statement
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 10_000;
+
+    /**
+     * Delete every row of the given tables in chunks of {@link #DEFAULT_CHUNK_SIZE}
+     *
+     * @param tables the tables to purge, in foreign key order
+     * @return rows removed and elapsed time per table
+     */
+    public List<PurgeResult> purge(List<String> tables) {
+        return purge(tables, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Delete every row of the given tables with set-based DELETE statements.
+     * Each chunk commits on its own (unless called inside a unit of work),
+     * so the undo log never has to hold a whole table. Chunks are taken in primary key
+     * order, so every DELETE removes the same rows on a replica replaying the
+     * statement-based binary log.
+     *
+     * @param tables the tables to purge, in foreign key order
+     * @param chunkSize maximum rows per DELETE, or 0 to delete each table with a single statement
+     * @return rows removed and elapsed time per table
+     * @throws IllegalArgumentException if a table purged in chunks has no primary key
+     */
+    public List<PurgeResult> purge(List<String> tables, int chunkSize) {
+        return DaoMetrics.operation(PurgeDAO.class, "purge").record(() -> purgeTables(tables, chunkSize));
+    }
+
+    private List<PurgeResult> purgeTables(List<String> tables, int chunkSize) {
+        List<PurgeResult> results = new ArrayList<>();
+        for (String table : tables) {
+            long start = System.nanoTime();
+            String sql = chunkSize > 0
+                    ? "DELETE FROM " + table + " ORDER BY " + String.join(", ", primaryKeyColumns(table))
+                            + " LIMIT " + chunkSize
+                    : "DELETE FROM " + table;
+            long total = 0;
+            int deleted;
+            do {
+                deleted = executeUpdate(sql, table);
+                total += deleted;
+            } while (chunkSize > 0 && deleted == chunkSize);
+            results.add(new PurgeResult(table, total, Duration.ofNanos(System.nanoTime() - start)));
+        }
+        return results;
+    }
+
+    /**
+     * Read the primary key columns of a table from the JDBC metadata, in key order.
+     * Join tables are not mapped as entities, so the Hibernate metamodel cannot be used.
+     */
+    private List<String> primaryKeyColumns(String table) {
+        List<String> columns = TransactionTemplate.readOnly().execute(session -> session.doReturningWork(connection -> {
+            SortedMap<Short, String> columnsBySequence = new TreeMap<>();
+            try (ResultSet keys = connection.getMetaData().getPrimaryKeys(connection.getCatalog(), null, table)) {
+                while (keys.next()) {
+                    columnsBySequence.put(keys.getShort("KEY_SEQ"), keys.getString("COLUMN_NAME"));
+                }
+            }
+            return new ArrayList<>(columnsBySequence.values());
+        }));
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("Table " + table + " has no primary key to delete in chunks by");
+        }
+        return columns;
+    }
+
+    /**
+     * Empty the given tables with TRUNCATE, the fastest option for a full reset.
+     * Foreign key checks are disabled on the connection while truncating, and all
+     * second-level cache regions are evicted afterwards since Hibernate does not see the change.
+     * <p>
+     * TRUNCATE is DDL in MySQL and commits implicitly, so it cannot be part of a unit of work:
+     * it would commit the caller's pending changes and could not be rolled back.
+     *
+     * @param tables the tables to truncate
+     * @return elapsed time per table (row counts are reported as -1)
+     * @throws IllegalStateException if the current thread has an active transaction
+     */
+    public List<PurgeResult> truncate(List<String> tables) {
+        if (HibernateUtil.getSessionFactory().getCurrentSession().getTransaction().isActive()) {
+            throw new IllegalStateException("TRUNCATE commits implicitly and cannot run inside a transaction");
+        }
+        return DaoMetrics.operation(PurgeDAO.class, "truncate").record(() -> truncateTables(tables));
+    }
+
+    private List<PurgeResult> truncateTables(List<String> tables) {
+        List<PurgeResult> results = new ArrayList<>();
+        TransactionTemplate.readWrite().executeWithoutResult(session -> {
+            session.doWork(connection -> {
+                try (var statement = connection.createStatement()) {
+                    statement.execute("SET FOREIGN_KEY_CHECKS = 0");
+                    try {
+                        for (String table : tables) {
+                            long start = System.nanoTime();
+                            statement.execute("TRUNCATE TABLE " + table);
+                            results.add(new PurgeResult(table, -1, Duration.ofNanos(System.nanoTime() - start)));
+                        }
+                    } finally {
+                        statement.execute("SET FOREIGN_KEY_CHECKS = 1");
+                    }
+                }
+            });
+        });
+        HibernateUtil.getSessionFactory().getCache().evictAllRegions();
+        return results;
+    }
+
+    /**
+     * Run a native DELETE in its own transaction, keeping Hibernate caches
+     * in sync through the table's query space
+     */
+    private int executeUpdate(String sql, String table) {
+        return TransactionTemplate.readWrite().execute(session -> session.createNativeQuery(sql, Void.class)
+                .addSynchronizedQuerySpace(table)
+                .executeUpdate());
+    }
+}
@@ -0,0 +1,13 @@
+package com.libreria.dao;
+
+import java.time.Duration;
+
+/**
+ * Outcome of purging a single table
+ *
+ * @param table the purged table
+ * @param rowsDeleted number of rows removed (-1 when truncated, MySQL does not report it)
+ * @param elapsed time spent on the table
+ */
+public record PurgeResult(String table, long rowsDeleted, Duration elapsed) {
+}
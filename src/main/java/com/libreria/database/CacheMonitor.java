@@ -0,0 +1,120 @@
+package com.libreria.database;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Hit/miss statistics of the second-level cache regions and of the cacheable named queries,
+ * read from Hibernate's Statistics.
+ */
+public class CacheMonitor {
+
+    /**
+     * Statistics of one cache region
+     *
+     * @param region the region name
+     * @param hits lookups served from the cache
+     * @param misses lookups that had to go to the database
+     * @param puts entries stored in the region
+     * @param size entries currently held in memory, or -1 if the provider does not report it
+     */
+    public record RegionStats(String region, long hits, long misses, long puts, long size) {
+
+        /**
+         * @return fraction of lookups served from the cache, between 0 and 1
+         */
+        public double hitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    /**
+     * Query cache statistics of one cacheable named query
+     *
+     * @param name the named query
+     * @param region the query cache region it uses
+     * @param executions times the query actually ran against the database
+     * @param hits results served from the query cache
+     * @param misses lookups not found (or stale) in the query cache
+     * @param puts results stored in the query cache
+     */
+    public record QueryStats(String name, String region, long executions, long hits, long misses, long puts) {
+
+        /**
+         * @return fraction of lookups served from the query cache, between 0 and 1
+         */
+        public double hitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    /**
+     * Get the statistics of every second-level cache region
+     *
+     * @return one entry per region
+     */
+    public static List<RegionStats> regionStatistics() {
+        Statistics statistics = HibernateUtil.getSessionFactory().getStatistics();
+        List<RegionStats> result = new ArrayList<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+            if (stats == null) {
+                continue;
+            }
+            long size = stats.getElementCountInMemory();
+            result.add(new RegionStats(region, stats.getHitCount(), stats.getMissCount(),
+                    stats.getPutCount(), size < 0 ? -1 : size));
+        }
+        return result;
+    }
+
+    /**
+     * Get the query cache statistics of every named query marked as cacheable
+     *
+     * @return one entry per cacheable named query, ordered by name
+     */
+    public static List<QueryStats> queryStatistics() {
+        SessionFactoryImplementor sessionFactory = (SessionFactoryImplementor) HibernateUtil.getSessionFactory();
+        Statistics statistics = sessionFactory.getStatistics();
+        List<QueryStats> result = new ArrayList<>();
+        sessionFactory.getQueryEngine().getNamedObjectRepository().visitSqmQueryMementos(memento -> {
+            if (Boolean.TRUE.equals(memento.getCacheable())) {
+                // Hibernate keys query statistics by the HQL text, not by the query name
+                QueryStatistics stats = statistics.getQueryStatistics(memento.getHqlString());
+                result.add(new QueryStats(memento.getRegistrationName(), memento.getCacheRegion(),
+                        stats.getExecutionCount(), stats.getCacheHitCount(),
+                        stats.getCacheMissCount(), stats.getCachePutCount()));
+            }
+        });
+        result.sort(Comparator.comparing(QueryStats::name));
+        return result;
+    }
+
+    /**
+     * @return one line per region and per cacheable named query with hits, misses, puts and hit ratio
+     */
+    public static String summary() {
+        StringBuilder sb = new StringBuilder();
+        for (RegionStats stats : regionStatistics()) {
+            sb.append(String.format("%s: hits=%d misses=%d puts=%d size=%d hitRatio=%.2f%n",
+                    stats.region(), stats.hits(), stats.misses(), stats.puts(), stats.size(), stats.hitRatio()));
+        }
+        for (QueryStats stats : queryStatistics()) {
+            sb.append(String.format("%s [%s]: executions=%d hits=%d misses=%d puts=%d hitRatio=%.2f%n",
+                    stats.name(), stats.region(), stats.executions(), stats.hits(), stats.misses(),
+                    stats.puts(), stats.hitRatio()));
+        }
+        return sb.toString();
+    }
+
+    private CacheMonitor() {
+    }
+}
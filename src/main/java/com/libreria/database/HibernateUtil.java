@@ -1,32 +1,133 @@
 package com.libreria.database;
 
+import com.libreria.monitoring.DaoMetrics;
+import com.libreria.monitoring.QueryScope;
+import com.libreria.monitoring.SlowQueryLog;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.cfg.JdbcSettings;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.TableGenerator;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Utility for managing Hibernate sessions.
  */
 public class HibernateUtil {
-    private static SessionFactory sessionFactory;
+
+    /**
+     * Prefix of the connection pool settings in hibernate.cfg.xml
+     */
+    public static final String POOL_PROPERTY_PREFIX = "hibernate.hikari.";
+
+    /**
+     * Connection settings: the Jakarta name, read first, mapped to the legacy
+     * "hibernate.connection.*" name that hibernate.cfg.xml and the -D overrides use
+     */
+    private static final Map<String, String> CONNECTION_PROPERTIES = Map.of(
+            JdbcSettings.JAKARTA_JDBC_URL, "hibernate.connection.url",
+            JdbcSettings.JAKARTA_JDBC_USER, "hibernate.connection.username",
+            JdbcSettings.JAKARTA_JDBC_PASSWORD, "hibernate.connection.password",
+            JdbcSettings.JAKARTA_JDBC_DRIVER, "hibernate.connection.driver_class");
+
+    /**
+     * Guards the one-time creation of the factory. A ReentrantLock rather than
+     * synchronized, so virtual threads waiting on the startup I/O are not pinned.
+     */
+    private static final Lock INIT_LOCK = new ReentrantLock();
+
+    private static volatile SessionFactory sessionFactory;
+    private static volatile HikariDataSource dataSource;
+    private static volatile PoolMetrics poolMetrics;
+    private static volatile Semaphore transactionPermits;
 
     /**
      * Gets the Hibernate session factory.
-     * Created only once for the application lifecycle.
+     * Created only once for the application lifecycle; once created it is
+     * returned with a single volatile read, without any locking.
      *
      * @return SessionFactory instance
      */
-    public static synchronized SessionFactory getSessionFactory() {
-        if (sessionFactory == null) {
-            try {
-                sessionFactory = new Configuration().configure().buildSessionFactory();
-            } catch (Exception e) {
-                System.err.println("Error creating SessionFactory: " + e.getMessage());
-                e.printStackTrace();
-                throw e;
+    public static SessionFactory getSessionFactory() {
+        SessionFactory factory = sessionFactory;
+        if (factory != null) {
+            return factory;
+        }
+        INIT_LOCK.lock();
+        try {
+            if (sessionFactory == null) {
+                sessionFactory = buildSessionFactory();
+            }
+            return sessionFactory;
+        } finally {
+            INIT_LOCK.unlock();
+        }
+    }
+
+    private static SessionFactory buildSessionFactory() {
+        try {
+            Configuration configuration = new Configuration().configure();
+            applySystemOverrides(configuration.getProperties());
+            dataSource = createDataSource(configuration.getProperties());
+            removeConnectionSettings(configuration);
+            // Hibernate gets the pool through the slow query log's timing wrapper
+            configuration.getProperties().put(JdbcSettings.JAKARTA_NON_JTA_DATASOURCE, SlowQueryLog.wrap(dataSource));
+            SessionFactory factory = configuration.buildSessionFactory();
+            transactionPermits = new Semaphore(transactionPermits(factory), true);
+            DaoMetrics.install(factory);
+            QueryScope.install(factory);
+            return factory;
+        } catch (Exception e) {
+            System.err.println("Error creating SessionFactory: " + e.getMessage());
+            e.printStackTrace();
+            if (dataSource != null) {
+                dataSource.close();
+                dataSource = null;
             }
+            throw e;
         }
-        return sessionFactory;
+    }
+
+    /**
+     * Number of transactions {@link TransactionTemplate} may run at once: the pool size minus one
+     * connection per table ID generator. A table generator fetches its next block of IDs in a
+     * separate transaction, on a second connection, while the unit of work that needs the ID holds
+     * its own; if every connection were held by such units, none of them could ever get one.
+     */
+    private static int transactionPermits(SessionFactory factory) {
+        AtomicInteger tableGenerators = new AtomicInteger();
+        ((SessionFactoryImplementor) factory).getMappingMetamodel().forEachEntityDescriptor(persister -> {
+            if (persister.getGenerator() instanceof TableGenerator) {
+                tableGenerators.incrementAndGet();
+            }
+        });
+        return Math.max(1, dataSource.getMaximumPoolSize() - tableGenerators.get());
+    }
+
+    /**
+     * @return permits for the transactions started by {@link TransactionTemplate}
+     */
+    static Semaphore getTransactionPermits() {
+        return transactionPermits;
+    }
+
+    /**
+     * @return how long to wait for a connection, in milliseconds
+     */
+    static long getConnectionTimeoutMillis() {
+        return dataSource.getConnectionTimeout();
     }
 
     /**
@@ -38,6 +139,15 @@ public class HibernateUtil {
         return getSessionFactory().getCurrentSession();
     }
 
+    /**
+     * Gets the live metrics of the connection pool.
+     *
+     * @return pool metrics, or null if the pool has not been started yet
+     */
+    public static PoolMetrics getPoolMetrics() {
+        return poolMetrics;
+    }
+
     /**
      * Tests the database connection.
      *
@@ -59,12 +169,90 @@ public class HibernateUtil {
     }
 
     /**
-     * Closes the session factory.
-     * Should be called when the application finishes.
+     * Closes the session factory and the connection pool.
+     * Should be called when the application finishes; a later
+     * {@link #getSessionFactory()} builds a new factory and pool.
      */
     public static void shutdown() {
-        if (sessionFactory != null && !sessionFactory.isClosed()) {
-            sessionFactory.close();
+        INIT_LOCK.lock();
+        try {
+            DaoMetrics.shutdown();
+            if (sessionFactory != null && !sessionFactory.isClosed()) {
+                sessionFactory.close();
+            }
+            if (dataSource != null && !dataSource.isClosed()) {
+                dataSource.close();
+            }
+            sessionFactory = null;
+            dataSource = null;
+            poolMetrics = null;
+            transactionPermits = null;
+        } finally {
+            INIT_LOCK.unlock();
+        }
+    }
+
+    /**
+     * Lets any "hibernate.*" system property override the value from hibernate.cfg.xml,
+     * so pool sizes and connection settings can be tuned per environment.
+     */
+    private static void applySystemOverrides(Properties properties) {
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("hibernate."))
+                .forEach(name -> properties.setProperty(name, System.getProperty(name)));
+    }
+
+    /**
+     * Builds the pooled DataSource from the connection and "hibernate.hikari.*" settings.
+     */
+    private static HikariDataSource createDataSource(Properties properties) {
+        Properties poolProperties = new Properties();
+        properties.stringPropertyNames().stream()
+                .filter(name -> name.startsWith(POOL_PROPERTY_PREFIX))
+                .forEach(name -> poolProperties.setProperty(
+                        name.substring(POOL_PROPERTY_PREFIX.length()), properties.getProperty(name)));
+
+        HikariConfig config = new HikariConfig(poolProperties);
+        config.setJdbcUrl(connectionSetting(properties, JdbcSettings.JAKARTA_JDBC_URL));
+        config.setUsername(connectionSetting(properties, JdbcSettings.JAKARTA_JDBC_USER));
+        config.setPassword(connectionSetting(properties, JdbcSettings.JAKARTA_JDBC_PASSWORD));
+        config.setDriverClassName(connectionSetting(properties, JdbcSettings.JAKARTA_JDBC_DRIVER));
+        config.setMetricsTrackerFactory((poolName, poolStats) -> {
+            poolMetrics = new PoolMetrics(poolName, poolStats);
+            registerMBean(poolMetrics);
+            return poolMetrics;
+        });
+        return new HikariDataSource(config);
+    }
+
+    private static String connectionSetting(Properties properties, String jakartaName) {
+        return properties.getProperty(jakartaName, properties.getProperty(CONNECTION_PROPERTIES.get(jakartaName)));
+    }
+
+    /**
+     * Drops the raw connection settings (both from the properties and from the
+     * registry builder that configure() filled) so Hibernate only sees the DataSource.
+     */
+    private static void removeConnectionSettings(Configuration configuration) {
+        for (Map.Entry<String, String> names : CONNECTION_PROPERTIES.entrySet()) {
+            String legacyName = names.getValue();
+            for (String name : List.of(names.getKey(), legacyName, legacyName.substring("hibernate.".length()))) {
+                configuration.getProperties().remove(name);
+                configuration.getStandardServiceRegistryBuilder().getSettings().remove(name);
+            }
+        }
+    }
+
+    private static void registerMBean(PoolMetrics metrics) {
+        try {
+            ObjectName name = new ObjectName("com.libreria:type=ConnectionPool,name=" + metrics.getPoolName());
+            // A pool rebuilt after shutdown() replaces the metrics of the previous one
+            if (ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+            }
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, name);
+        } catch (Exception e) {
+            System.err.println("Error registering pool metrics MBean: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
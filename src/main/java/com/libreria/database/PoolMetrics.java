@@ -0,0 +1,160 @@
+package com.libreria.database;
+
+import com.libreria.monitoring.ConnectionAcquireEvent;
+import com.libreria.utils.LatencyHistogram;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection pool metrics fed by HikariCP.
+ * Exposes live gauges (active, idle, pending) together with
+ * histograms for connection acquisition and usage times.
+ * Every acquisition is also emitted as a {@code com.libreria.ConnectionAcquire} Flight Recorder event.
+ */
+public class PoolMetrics implements IMetricsTracker, PoolMetricsMXBean {
+
+    private final String poolName;
+    private final PoolStats poolStats;
+    private final LatencyHistogram acquireTimes = new LatencyHistogram();
+    private final LatencyHistogram usageTimes = new LatencyHistogram();
+    private final LatencyHistogram creationTimes = new LatencyHistogram();
+    private final LongAdder timeouts = new LongAdder();
+
+    public PoolMetrics(String poolName, PoolStats poolStats) {
+        this.poolName = poolName;
+        this.poolStats = poolStats;
+    }
+
+    @Override
+    public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+        creationTimes.record(TimeUnit.MILLISECONDS.toNanos(connectionCreatedMillis));
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquireTimes.record(elapsedAcquiredNanos);
+        ConnectionAcquireEvent.emit(poolName, elapsedAcquiredNanos);
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        usageTimes.record(TimeUnit.MILLISECONDS.toNanos(elapsedBorrowedMillis));
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+    }
+
+    @Override
+    public String getPoolName() {
+        return poolName;
+    }
+
+    @Override
+    public int getActiveConnections() {
+        return poolStats.getActiveConnections();
+    }
+
+    @Override
+    public int getIdleConnections() {
+        return poolStats.getIdleConnections();
+    }
+
+    @Override
+    public int getTotalConnections() {
+        return poolStats.getTotalConnections();
+    }
+
+    @Override
+    public int getPendingThreads() {
+        return poolStats.getPendingThreads();
+    }
+
+    @Override
+    public int getMinConnections() {
+        return poolStats.getMinConnections();
+    }
+
+    @Override
+    public int getMaxConnections() {
+        return poolStats.getMaxConnections();
+    }
+
+    @Override
+    public long getConnectionTimeouts() {
+        return timeouts.sum();
+    }
+
+    @Override
+    public long getAcquireCount() {
+        return acquireTimes.getCount();
+    }
+
+    @Override
+    public double getAcquireMeanMillis() {
+        return acquireTimes.getMeanNanos() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public double getAcquireP50Millis() {
+        return toMillis(acquireTimes.getPercentileNanos(50));
+    }
+
+    @Override
+    public double getAcquireP99Millis() {
+        return toMillis(acquireTimes.getPercentileNanos(99));
+    }
+
+    @Override
+    public double getAcquireMaxMillis() {
+        return toMillis(acquireTimes.getMaxNanos());
+    }
+
+    @Override
+    public double getUsageP99Millis() {
+        return toMillis(usageTimes.getPercentileNanos(99));
+    }
+
+    /**
+     * @return histogram of the time spent waiting for a connection
+     */
+    public LatencyHistogram getAcquireTimes() {
+        return acquireTimes;
+    }
+
+    /**
+     * @return histogram of the time a connection was held before being returned
+     */
+    public LatencyHistogram getUsageTimes() {
+        return usageTimes;
+    }
+
+    /**
+     * @return histogram of the time needed to open a physical connection
+     */
+    public LatencyHistogram getCreationTimes() {
+        return creationTimes;
+    }
+
+    @Override
+    public String summary() {
+        return String.format("pool=%s active=%d idle=%d total=%d/%d pending=%d timeouts=%d%n  acquire: %s%n  usage:   %s",
+                poolName,
+                getActiveConnections(),
+                getIdleConnections(),
+                getTotalConnections(),
+                getMaxConnections(),
+                getPendingThreads(),
+                getConnectionTimeouts(),
+                acquireTimes.summary(),
+                usageTimes.summary());
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
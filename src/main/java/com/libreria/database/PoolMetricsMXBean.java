@@ -0,0 +1,37 @@
+package com.libreria.database;
+
+/**
+ * JMX view of the connection pool gauges and acquisition times.
+ */
+public interface PoolMetricsMXBean {
+
+    String getPoolName();
+
+    int getActiveConnections();
+
+    int getIdleConnections();
+
+    int getTotalConnections();
+
+    int getPendingThreads();
+
+    int getMinConnections();
+
+    int getMaxConnections();
+
+    long getConnectionTimeouts();
+
+    long getAcquireCount();
+
+    double getAcquireMeanMillis();
+
+    double getAcquireP50Millis();
+
+    double getAcquireP99Millis();
+
+    double getAcquireMaxMillis();
+
+    double getUsageP99Millis();
+
+    String summary();
+}
@@ -0,0 +1,191 @@
+package com.libreria.database;
+
+import com.libreria.monitoring.TransactionEvent;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+
+import java.sql.Connection;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs a unit of work inside a transaction on the current session.
+ * If the current thread already has an active transaction the work joins it,
+ * so a service can wrap several DAO calls and pay for a single flush and commit;
+ * otherwise a new transaction is started, committed (or rolled back) and the
+ * session closed when the work finishes.
+ * Each new transaction is emitted as a {@code com.libreria.Transaction} Flight Recorder event.
+ * <p>
+ * New transactions wait for a permit first, so a few connections always stay free for the
+ * table ID generators (see {@code HibernateUtil}): with thousands of virtual threads the callers
+ * queue on the permits instead of exhausting the pool while holding connections.
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+public final class TransactionTemplate {
+
+    /**
+     * JDBC isolation level applied to a new transaction
+     */
+    public enum Isolation {
+        /**
+         * Keep the level configured on the connection (REPEATABLE READ on MySQL)
+         */
+        DEFAULT(-1),
+        READ_UNCOMMITTED(Connection.TRANSACTION_READ_UNCOMMITTED),
+        READ_COMMITTED(Connection.TRANSACTION_READ_COMMITTED),
+        REPEATABLE_READ(Connection.TRANSACTION_REPEATABLE_READ),
+        SERIALIZABLE(Connection.TRANSACTION_SERIALIZABLE);
+
+        private final int level;
+
+        Isolation(int level) {
+            this.level = level;
+        }
+    }
+
+    private static final TransactionTemplate READ_WRITE = new TransactionTemplate(false, Isolation.DEFAULT);
+    private static final TransactionTemplate READ_ONLY = new TransactionTemplate(true, Isolation.DEFAULT);
+
+    private final boolean readOnly;
+    private final Isolation isolation;
+
+    private TransactionTemplate(boolean readOnly, Isolation isolation) {
+        this.readOnly = readOnly;
+        this.isolation = isolation;
+    }
+
+    /**
+     * @return a template for work that writes to the database
+     */
+    public static TransactionTemplate readWrite() {
+        return READ_WRITE;
+    }
+
+    /**
+     * Template for work that only reads: entities are loaded read-only (no snapshots
+     * kept for dirty checking), the session is never flushed and the JDBC connection
+     * is flagged read-only so the driver runs a read-only transaction
+     *
+     * @return a template for read-only work
+     */
+    public static TransactionTemplate readOnly() {
+        return READ_ONLY;
+    }
+
+    /**
+     * Copy of this template that starts its transactions with the given isolation level.
+     * The level is reset when the connection goes back to the pool.
+     *
+     * @param isolation the isolation level
+     * @return the new template
+     */
+    public TransactionTemplate withIsolation(Isolation isolation) {
+        return new TransactionTemplate(readOnly, isolation);
+    }
+
+    /**
+     * @return true if the work runs read-only
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Run the work in a transaction and return its result.
+     * When joining an existing transaction the read-only and isolation settings
+     * of the outer transaction stay in effect.
+     *
+     * @param work the work to run with the current session
+     * @param <R> the result type
+     * @return the result of the work
+     */
+    public <R> R execute(Function<Session, R> work) {
+        Session session = HibernateUtil.getSessionFactory().getCurrentSession();
+        if (session.getTransaction().isActive()) {
+            return work.apply(session);
+        }
+
+        Semaphore permits = HibernateUtil.getTransactionPermits();
+        acquire(permits);
+        TransactionEvent event = TransactionEvent.start(readOnly, isolation.name());
+        boolean committed = false;
+        Transaction tx = null;
+        try {
+            tx = session.beginTransaction();
+            // Applied before the first statement, so they take effect for this transaction;
+            // the pool resets both when the connection is returned
+            if (isolation != Isolation.DEFAULT) {
+                session.doWork(connection -> connection.setTransactionIsolation(isolation.level));
+            }
+            if (readOnly) {
+                session.setDefaultReadOnly(true);
+                session.setHibernateFlushMode(FlushMode.MANUAL);
+                session.doWork(connection -> connection.setReadOnly(true));
+            }
+            R result = work.apply(session);
+            tx.commit();
+            committed = true;
+            return result;
+        } catch (RuntimeException | Error e) {
+            if (tx != null && tx.isActive()) {
+                tx.rollback();
+            }
+            throw e;
+        } finally {
+            try {
+                if (session.isOpen()) {
+                    session.close();
+                }
+            } finally {
+                // Released once the connection is back in the pool
+                permits.release();
+            }
+            event.finish(committed);
+        }
+    }
+
+    /**
+     * Take a transaction permit for work that opens its own session and keeps its
+     * connection outside a template, e.g. a stream that is read until it is closed.
+     * Waits up to the pool's connection timeout.
+     *
+     * @return the action that gives the permit back, to run once the session is closed
+     */
+    public static Runnable acquirePermit() {
+        Semaphore permits = HibernateUtil.getTransactionPermits();
+        acquire(permits);
+        return permits::release;
+    }
+
+    /**
+     * Wait for a transaction permit, up to the pool's connection timeout
+     */
+    private static void acquire(Semaphore permits) {
+        long timeout = HibernateUtil.getConnectionTimeoutMillis();
+        try {
+            if (!permits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("No transaction permit available after " + timeout + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a transaction permit", e);
+        }
+    }
+
+    /**
+     * Run the work in a transaction
+     *
+     * @param work the work to run with the current session
+     * @see #execute(Function)
+     */
+    public void executeWithoutResult(Consumer<Session> work) {
+        execute(session -> {
+            work.accept(session);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,16 @@
+package com.libreria.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only projection of an author joined with one of its books.
+ * Book fields are null for authors without books.
+ */
+public record AutorLibroDTO(
+        Long autorId,
+        String nombre,
+        String apellidos,
+        Long libroId,
+        String titulo,
+        BigDecimal precio) {
+}
@@ -0,0 +1,18 @@
+package com.libreria.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of a department joined with one of its employees.
+ * Employee fields are null for departments without employees.
+ */
+public record DepartamentoEmpleadoDTO(
+        Long departamentoId,
+        String nombre,
+        String descripcion,
+        String ubicacion,
+        Long empleadoId,
+        String empleadoNombre,
+        String empleadoApellido,
+        LocalDate fechaContratacion) {
+}
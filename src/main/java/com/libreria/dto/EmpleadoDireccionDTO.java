@@ -0,0 +1,13 @@
+package com.libreria.dto;
+
+/**
+ * Read-only projection of an employee with its address
+ */
+public record EmpleadoDireccionDTO(
+        String nombre,
+        String apellido,
+        String calle,
+        String ciudad,
+        String codigoPostal,
+        String pais) {
+}
@@ -0,0 +1,17 @@
+package com.libreria.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only projection of a bookstore-book pair from the LIBRERIA_LIBRO association.
+ * The fields of the joined side are null when the other side has no pairs.
+ */
+public record LibreriaLibroDTO(
+        Long libreriaId,
+        String libreriaNombre,
+        String nombreDueno,
+        String direccion,
+        Long libroId,
+        String titulo,
+        BigDecimal precio) {
+}
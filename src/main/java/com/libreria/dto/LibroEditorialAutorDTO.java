@@ -0,0 +1,14 @@
+package com.libreria.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only projection of a book with its publisher and author names
+ */
+public record LibroEditorialAutorDTO(
+        String titulo,
+        BigDecimal precio,
+        String editorial,
+        String autorNombre,
+        String autorApellidos) {
+}
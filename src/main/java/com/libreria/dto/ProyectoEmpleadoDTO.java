@@ -0,0 +1,16 @@
+package com.libreria.dto;
+
+/**
+ * Read-only projection of a project-employee pair from the EMPLEADO_PROYECTO association.
+ * The fields of the joined side are null when the other side has no pairs.
+ */
+public record ProyectoEmpleadoDTO(
+        Long proyectoId,
+        String proyectoNombre,
+        String proyectoDescripcion,
+        Double presupuesto,
+        Long empleadoId,
+        String empleadoNombre,
+        String empleadoApellido,
+        String email) {
+}
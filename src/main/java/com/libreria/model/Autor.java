@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serializable;
 import java.time.LocalDate;
@@ -20,16 +22,21 @@ import java.util.List;
 @AllArgsConstructor
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "autores")
 @Table(name = "AUTORES")
 @NamedQuery(name = "Autor.findAll", query = "FROM Autor")
 @NamedQuery(name = "Autor.findByNombre", query = "FROM Autor a WHERE a.nombre = :nombre")
 @NamedQuery(name = "Autor.findByApellidos", query = "FROM Autor a WHERE a.apellidos = :apellidos")
+@NamedEntityGraph(name = "Autor.withLibros", attributeNodes = {@NamedAttributeNode("libros")})
 public class Autor implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "autores_gen")
+    @TableGenerator(name = "autores_gen", table = "ID_GENERADORES", pkColumnName = "tabla",
+            valueColumnName = "siguiente_id", pkColumnValue = "AUTORES", allocationSize = 50)
     private Long id;
 
     @Column(name = "nombre", nullable = false, length = 100)
@@ -41,6 +48,7 @@ public class Autor implements Serializable {
     @Column(name = "fecha_nacimiento")
     private LocalDate fechaNacimiento;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "autor-libros")
     @OneToMany(mappedBy = "autor", cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     private List<Libro> libros = new ArrayList<>();
 
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -20,16 +22,21 @@ import java.util.List;
 @AllArgsConstructor
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "departamentos")
 @Table(name = "DEPARTAMENTOS")
 @NamedQuery(name = "Departamento.findAll", query = "FROM Departamento")
 @NamedQuery(name = "Departamento.findByNombre", query = "FROM Departamento d WHERE d.nombre = :nombre")
 @NamedQuery(name = "Departamento.findByUbicacion", query = "FROM Departamento d WHERE d.ubicacion = :ubicacion")
+@NamedEntityGraph(name = "Departamento.withEmpleados", attributeNodes = {@NamedAttributeNode("empleados")})
 public class Departamento implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "departamentos_gen")
+    @TableGenerator(name = "departamentos_gen", table = "ID_GENERADORES", pkColumnName = "tabla",
+            valueColumnName = "siguiente_id", pkColumnValue = "DEPARTAMENTOS", allocationSize = 50)
     private Long id;
 
     @Column(name = "nombre", nullable = false, unique = true)
@@ -42,6 +49,7 @@ public class Departamento implements Serializable {
     private String ubicacion;
 
     // One-to-Many relationship with Empleado
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "departamento-empleados")
     @OneToMany(mappedBy = "departamento")
     private List<Empleado> empleados = new ArrayList<>();
 
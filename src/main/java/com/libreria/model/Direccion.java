@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.jpa.HibernateHints;
 
 import java.io.Serializable;
 
@@ -20,13 +21,20 @@ import java.io.Serializable;
 @Entity
 @Table(name = "DIRECCIONES")
 @NamedQuery(name = "Direccion.findAll", query = "FROM Direccion")
-@NamedQuery(name = "Direccion.findByCiudad", query = "FROM Direccion d WHERE d.ciudad = :ciudad")
+@NamedQuery(name = "Direccion.findByCiudad", query = "FROM Direccion d WHERE d.ciudad = :ciudad",
+        hints = {
+                @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "direccion-queries")
+        })
+@NamedEntityGraph(name = "Direccion.withEmpleado", attributeNodes = {@NamedAttributeNode("empleado")})
 public class Direccion implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "direcciones_gen")
+    @TableGenerator(name = "direcciones_gen", table = "ID_GENERADORES", pkColumnName = "tabla",
+            valueColumnName = "siguiente_id", pkColumnValue = "DIRECCIONES", allocationSize = 50)
     private Long id;
 
     @Column(name = "calle", nullable = false)
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -19,15 +21,20 @@ import java.util.List;
 @AllArgsConstructor
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "editoriales")
 @Table(name = "EDITORIALES")
 @NamedQuery(name = "Editorial.findAll", query = "FROM Editorial")
 @NamedQuery(name = "Editorial.findByNombre", query = "FROM Editorial e WHERE e.nombre = :nombre")
+@NamedEntityGraph(name = "Editorial.withLibros", attributeNodes = {@NamedAttributeNode("librosPublicados")})
 public class Editorial implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "editoriales_gen")
+    @TableGenerator(name = "editoriales_gen", table = "ID_GENERADORES", pkColumnName = "tabla",
+            valueColumnName = "siguiente_id", pkColumnValue = "EDITORIALES", allocationSize = 50)
     private Long id;
 
     @Column(name = "nombre", nullable = false, length = 100)
@@ -36,6 +43,7 @@ public class Editorial implements Serializable {
     @Column(name = "direccion", length = 255)
     private String direccion;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "editorial-libros")
     @OneToMany(mappedBy = "editorial", cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     private List<Libro> librosPublicados = new ArrayList<>();
 
@@ -5,6 +5,11 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.jpa.HibernateHints;
 
 import java.io.Serializable;
 import java.time.LocalDate;
@@ -24,17 +29,34 @@ import java.util.Set;
 @AllArgsConstructor
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "empleados")
+@DynamicUpdate
 @Table(name = "EMPLEADOS")
 @NamedQuery(name = "Empleado.findAll", query = "FROM Empleado")
 @NamedQuery(name = "Empleado.findByNombre", query = "FROM Empleado e WHERE e.nombre = :nombre")
-@NamedQuery(name = "Empleado.findByDepartamentoId", query = "FROM Empleado e WHERE e.departamento.id = :departamentoId")
+@NamedQuery(name = "Empleado.findByDepartamentoId", query = "FROM Empleado e WHERE e.departamento.id = :departamentoId",
+        hints = {
+                @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "empleado-queries")
+        })
 @NamedQuery(name = "Empleado.updateSalario", query = "UPDATE Empleado e SET e.salario = :salario WHERE e.id = :id")
+@NamedEntityGraph(name = "Empleado.withDepartamento", attributeNodes = {@NamedAttributeNode("departamento")})
+@NamedEntityGraph(name = "Empleado.withDireccion", attributeNodes = {@NamedAttributeNode("direccion")})
+@NamedEntityGraph(name = "Empleado.withProyectos", attributeNodes = {@NamedAttributeNode("proyectos")})
+@NamedEntityGraph(name = "Empleado.withAll", attributeNodes = {
+        @NamedAttributeNode("departamento"),
+        @NamedAttributeNode("direccion"),
+        @NamedAttributeNode("proyectos")
+})
 public class Empleado implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "empleados_gen")
+    @TableGenerator(name = "empleados_gen", table = "ID_GENERADORES", pkColumnName = "tabla",
+            valueColumnName = "siguiente_id", pkColumnValue = "EMPLEADOS", allocationSize = 50)
     private Long id;
 
     @Column(name = "nombre", nullable = false)
@@ -91,11 +113,15 @@ public class Empleado implements Serializable {
     }
 
     /**
-     * Helper method for managing relationships
+     * Helper method for managing relationships.
+     * The department's employee list is only updated if already loaded:
+     * the foreign key lives here, so a large department is never read just to add one employee.
      */
     public void asignarDepartamento(Departamento departamento) {
         this.departamento = departamento;
-        departamento.getEmpleados().add(this);
+        if (Hibernate.isInitialized(departamento.getEmpleados())) {
+            departamento.getEmpleados().add(this);
+        }
     }
 
     /**
@@ -103,17 +129,22 @@ public class Empleado implements Serializable {
      */
     public void dejarDepartamento() {
         if (this.departamento != null) {
-            this.departamento.getEmpleados().remove(this);
+            if (Hibernate.isInitialized(this.departamento.getEmpleados())) {
+                this.departamento.getEmpleados().remove(this);
+            }
             this.departamento = null;
         }
     }
 
     /**
-     * Helper method for managing relationships
+     * Helper method for managing relationships.
+     * The project's (inverse) employee set is only updated if already loaded.
      */
     public void asignarProyecto(Proyecto proyecto) {
         this.proyectos.add(proyecto);
-        proyecto.getEmpleados().add(this);
+        if (Hibernate.isInitialized(proyecto.getEmpleados())) {
+            proyecto.getEmpleados().add(this);
+        }
     }
 
     /**
@@ -121,7 +152,9 @@ public class Empleado implements Serializable {
      */
     public void dejarProyecto(Proyecto proyecto) {
         this.proyectos.remove(proyecto);
-        proyecto.getEmpleados().remove(this);
+        if (Hibernate.isInitialized(proyecto.getEmpleados())) {
+            proyecto.getEmpleados().remove(this);
+        }
     }
 
     @Override
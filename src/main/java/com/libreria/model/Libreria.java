@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.Hibernate;
 
 import java.io.Serializable;
 import java.util.HashSet;
@@ -23,12 +24,15 @@ import java.util.Set;
 @NamedQuery(name = "Libreria.findAll", query = "FROM Libreria")
 @NamedQuery(name = "Libreria.findByNombre", query = "FROM Libreria l WHERE l.nombre = :nombre")
 @NamedQuery(name = "Libreria.findByDireccion", query = "FROM Libreria l WHERE l.direccion = :direccion")
+@NamedEntityGraph(name = "Libreria.withLibros", attributeNodes = {@NamedAttributeNode("libros")})
 public class Libreria implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "librerias_gen")
+    @TableGenerator(name = "librerias_gen", table = "ID_GENERADORES", pkColumnName = "tabla",
+            valueColumnName = "siguiente_id", pkColumnValue = "LIBRERIAS", allocationSize = 50)
     private Long id;
 
     @Column(name = "nombre", nullable = false, length = 100)
@@ -53,19 +57,25 @@ public class Libreria implements Serializable {
     }
 
     /**
-     * Helper method for bidirectional relationships
+     * Helper method for bidirectional relationships.
+     * The book's side owns the join table; this side is only updated
+     * if already loaded, so a store with many books is never read just to add one.
      */
     public void addLibro(Libro libro) {
-        libros.add(libro);
         libro.getLibrerias().add(this);
+        if (Hibernate.isInitialized(libros)) {
+            libros.add(libro);
+        }
     }
 
     /**
      * Helper method for bidirectional relationships
      */
     public void removeLibro(Libro libro) {
-        libros.remove(libro);
         libro.getLibrerias().remove(this);
+        if (Hibernate.isInitialized(libros)) {
+            libros.remove(libro);
+        }
     }
 
     @Override
@@ -5,6 +5,11 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.jpa.HibernateHints;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
@@ -20,17 +25,44 @@ import java.util.Set;
 @AllArgsConstructor
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "libros")
+@DynamicUpdate
 @Table(name = "LIBROS")
 @NamedQuery(name = "Libro.findAll", query = "FROM Libro")
-@NamedQuery(name = "Libro.findByTitulo", query = "FROM Libro l WHERE l.titulo = :titulo")
-@NamedQuery(name = "Libro.findByAutorId", query = "FROM Libro l WHERE l.autor.id = :autorId")
-@NamedQuery(name = "Libro.findByEditorialId", query = "FROM Libro l WHERE l.editorial.id = :editorialId")
+@NamedQuery(name = "Libro.findByTitulo", query = "FROM Libro l WHERE l.titulo = :titulo",
+        hints = {
+                @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "libro-queries")
+        })
+@NamedQuery(name = "Libro.findByAutorId", query = "FROM Libro l WHERE l.autor.id = :autorId",
+        hints = {
+                @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "libro-queries")
+        })
+@NamedQuery(name = "Libro.findByEditorialId", query = "FROM Libro l WHERE l.editorial.id = :editorialId",
+        hints = {
+                @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "libro-queries")
+        })
+@NamedEntityGraph(name = "Libro.withEditorialAndAutor", attributeNodes = {
+        @NamedAttributeNode("editorial"),
+        @NamedAttributeNode("autor")
+})
+@NamedEntityGraph(name = "Libro.withLibrerias", attributeNodes = {@NamedAttributeNode("librerias")})
+@NamedEntityGraph(name = "Libro.withAll", attributeNodes = {
+        @NamedAttributeNode("editorial"),
+        @NamedAttributeNode("autor"),
+        @NamedAttributeNode("librerias")
+})
 public class Libro implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "libros_gen")
+    @TableGenerator(name = "libros_gen", table = "ID_GENERADORES", pkColumnName = "tabla",
+            valueColumnName = "siguiente_id", pkColumnValue = "LIBROS", allocationSize = 50)
     private Long id;
 
     @Column(name = "titulo", nullable = false, length = 200)
@@ -64,11 +96,14 @@ public class Libro implements Serializable {
     }
 
     /**
-     * Helper method for bidirectional relationships
+     * Helper method for bidirectional relationships.
+     * The bookstore's (inverse) side is only updated if already loaded.
      */
     public void addLibreria(Libreria libreria) {
         librerias.add(libreria);
-        libreria.getLibros().add(this);
+        if (Hibernate.isInitialized(libreria.getLibros())) {
+            libreria.getLibros().add(this);
+        }
     }
 
     /**
@@ -76,7 +111,9 @@ public class Libro implements Serializable {
      */
     public void removeLibreria(Libreria libreria) {
         librerias.remove(libreria);
-        libreria.getLibros().remove(this);
+        if (Hibernate.isInitialized(libreria.getLibros())) {
+            libreria.getLibros().remove(this);
+        }
     }
 
     @Override
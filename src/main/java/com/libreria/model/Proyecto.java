@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serializable;
 import java.time.LocalDate;
@@ -21,18 +23,23 @@ import java.util.Set;
 @AllArgsConstructor
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "proyectos")
 @Table(name = "PROYECTOS")
 @NamedQuery(name = "Proyecto.findAll", query = "FROM Proyecto")
 @NamedQuery(name = "Proyecto.findByPresupuestoRange",
         query = "FROM Proyecto p WHERE p.presupuesto BETWEEN :minPresupuesto AND :maxPresupuesto")
 @NamedQuery(name = "Proyecto.findByFechaInicio",
         query = "FROM Proyecto p WHERE p.fechaInicio = :fechaInicio")
+@NamedEntityGraph(name = "Proyecto.withEmpleados", attributeNodes = {@NamedAttributeNode("empleados")})
 public class Proyecto implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "proyectos_gen")
+    @TableGenerator(name = "proyectos_gen", table = "ID_GENERADORES", pkColumnName = "tabla",
+            valueColumnName = "siguiente_id", pkColumnValue = "PROYECTOS", allocationSize = 50)
     private Long id;
 
     @Column(name = "nombre", nullable = false)
@@ -0,0 +1,41 @@
+package com.libreria.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for a connection borrowed from the pool. The pool reports
+ * the wait once it is over, so the wait is a field and the event itself is instant.
+ */
+@Name("com.libreria.ConnectionAcquire")
+@Label("Connection Acquire")
+@Category({"Libreria", "Database"})
+@Description("A connection borrowed from the pool")
+public class ConnectionAcquireEvent extends Event {
+
+    @Label("Pool")
+    String pool;
+
+    @Label("Acquire Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long acquireTime;
+
+    /**
+     * Emit the event for a connection the current thread has just borrowed
+     *
+     * @param pool the pool name
+     * @param acquireNanos time spent waiting for the connection
+     */
+    public static void emit(String pool, long acquireNanos) {
+        ConnectionAcquireEvent event = new ConnectionAcquireEvent();
+        if (event.shouldCommit()) {
+            event.pool = pool;
+            event.acquireTime = acquireNanos;
+            event.commit();
+        }
+    }
+}
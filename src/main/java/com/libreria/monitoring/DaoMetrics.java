@@ -0,0 +1,338 @@
+package com.libreria.monitoring;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of the per-DAO-method metrics, plus the glue that feeds them:
+ * per-thread counters of prepared statements and loaded entities, JMX registration
+ * and an optional periodic dump to standard output.
+ * <p>
+ * Each operation is exposed as {@code com.libreria:type=DaoOperation,name=<Dao>.<method>};
+ * the registry itself, with Hibernate's statistics, as {@code com.libreria:type=DaoMetrics}.
+ */
+public final class DaoMetrics implements DaoMetricsMXBean {
+
+    /**
+     * System property with the period, in seconds, of the metrics dump to standard output (off if unset)
+     */
+    public static final String DUMP_INTERVAL_PROPERTY = "libreria.metrics.dumpInterval";
+
+    private static final int SLOWEST_QUERIES = 5;
+
+    private static final DaoMetrics INSTANCE = new DaoMetrics();
+
+    private static final ConcurrentMap<String, OperationMetrics> OPERATIONS = new ConcurrentHashMap<>();
+
+    /**
+     * Cache of each DAO's operations keyed by method name, so the lookup on every call
+     * does not build a "Dao.method" string
+     */
+    private static final ClassValue<ConcurrentMap<String, OperationMetrics>> BY_DAO = new ClassValue<>() {
+        @Override
+        protected ConcurrentMap<String, OperationMetrics> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * Monotonic counters of the current thread; operations record the difference between start and end
+     */
+    private static final ThreadLocal<long[]> THREAD_COUNTERS = ThreadLocal.withInitial(() -> new long[4]);
+    private static final int STATEMENTS = 0;
+    private static final int ENTITIES = 1;
+    private static final int FLUSHES = 2;
+    private static final int FLUSH_NANOS = 3;
+
+    private static final ThreadLocal<String> CURRENT_OPERATION = new ThreadLocal<>();
+
+    private static volatile SessionFactory sessionFactory;
+    private static volatile ScheduledExecutorService dumper;
+
+    private DaoMetrics() {
+    }
+
+    /**
+     * Get (or create) the metrics of a DAO method
+     *
+     * @param dao the DAO class
+     * @param method the method name
+     * @return the operation metrics
+     */
+    public static OperationMetrics operation(Class<?> dao, String method) {
+        return operation(dao, method, null);
+    }
+
+    /**
+     * Get (or create) the metrics of a DAO method working on an entity
+     *
+     * @param dao the DAO class
+     * @param method the method name
+     * @param entity the entity the DAO manages, or null
+     * @return the operation metrics
+     */
+    public static OperationMetrics operation(Class<?> dao, String method, Class<?> entity) {
+        ConcurrentMap<String, OperationMetrics> operations = BY_DAO.get(dao);
+        OperationMetrics metrics = operations.get(method);
+        if (metrics != null) {
+            return metrics;
+        }
+        return operations.computeIfAbsent(method, m -> OPERATIONS.computeIfAbsent(
+                dao.getSimpleName() + "." + m,
+                name -> register(new OperationMetrics(dao.getSimpleName(), m,
+                        entity != null ? entity.getSimpleName() : null))));
+    }
+
+    /**
+     * @return the metrics of every operation called so far, ordered by name
+     */
+    public static List<OperationMetrics> operations() {
+        return OPERATIONS.values().stream()
+                .sorted(Comparator.comparing(OperationMetrics::getName))
+                .toList();
+    }
+
+    /**
+     * Hook the counters into the session factory, register the MBeans and start
+     * the periodic dump if {@value #DUMP_INTERVAL_PROPERTY} is set
+     *
+     * @param factory the session factory just built
+     */
+    public static void install(SessionFactory factory) {
+        sessionFactory = factory;
+        ((SessionFactoryImplementor) factory).getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, event -> THREAD_COUNTERS.get()[ENTITIES]++);
+        registerMBean(INSTANCE, "com.libreria:type=DaoMetrics");
+
+        Long interval = Long.getLong(DUMP_INTERVAL_PROPERTY);
+        if (interval != null && interval > 0 && dumper == null) {
+            dumper = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                    .name("dao-metrics-dump").daemon(true).factory());
+            dumper.scheduleAtFixedRate(() -> System.out.print(INSTANCE.summary()),
+                    interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Stop the periodic dump
+     */
+    public static void shutdown() {
+        ScheduledExecutorService executor = dumper;
+        if (executor != null) {
+            executor.shutdownNow();
+            dumper = null;
+        }
+    }
+
+    /**
+     * @return the metrics registry as exposed through JMX
+     */
+    public static DaoMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return the innermost DAO operation running on this thread, or null outside the DAOs
+     */
+    public static String currentOperation() {
+        return CURRENT_OPERATION.get();
+    }
+
+    static String enter(String operation) {
+        String caller = CURRENT_OPERATION.get();
+        CURRENT_OPERATION.set(operation);
+        return caller;
+    }
+
+    static void exit(String caller) {
+        if (caller == null) {
+            CURRENT_OPERATION.remove();
+        } else {
+            CURRENT_OPERATION.set(caller);
+        }
+    }
+
+    static void statementPrepared() {
+        THREAD_COUNTERS.get()[STATEMENTS]++;
+    }
+
+    static long threadStatements() {
+        return THREAD_COUNTERS.get()[STATEMENTS];
+    }
+
+    static long threadEntities() {
+        return THREAD_COUNTERS.get()[ENTITIES];
+    }
+
+    static void flushFinished(long nanos) {
+        long[] counters = THREAD_COUNTERS.get();
+        counters[FLUSHES]++;
+        counters[FLUSH_NANOS] += nanos;
+    }
+
+    static long threadFlushes() {
+        return THREAD_COUNTERS.get()[FLUSHES];
+    }
+
+    static long threadFlushNanos() {
+        return THREAD_COUNTERS.get()[FLUSH_NANOS];
+    }
+
+    private static OperationMetrics register(OperationMetrics metrics) {
+        registerMBean(metrics, "com.libreria:type=DaoOperation,name=" + metrics.getName());
+        return metrics;
+    }
+
+    private static void registerMBean(Object mbean, String objectName) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(objectName);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(mbean, name);
+        } catch (Exception e) {
+            System.err.println("Error registering metrics MBean " + objectName + ": " + e.getMessage());
+        }
+    }
+
+    private static Statistics statistics() {
+        SessionFactory factory = sessionFactory;
+        return factory == null || factory.isClosed() ? null : factory.getStatistics();
+    }
+
+    @Override
+    public List<String> getOperationNames() {
+        return operations().stream().map(OperationMetrics::getName).toList();
+    }
+
+    @Override
+    public long getQueryExecutionCount() {
+        Statistics statistics = statistics();
+        return statistics == null ? 0 : statistics.getQueryExecutionCount();
+    }
+
+    @Override
+    public long getQueryExecutionMaxTime() {
+        Statistics statistics = statistics();
+        return statistics == null ? 0 : statistics.getQueryExecutionMaxTime();
+    }
+
+    @Override
+    public String getQueryExecutionMaxTimeQueryString() {
+        Statistics statistics = statistics();
+        return statistics == null ? null : statistics.getQueryExecutionMaxTimeQueryString();
+    }
+
+    @Override
+    public long getPrepareStatementCount() {
+        Statistics statistics = statistics();
+        return statistics == null ? 0 : statistics.getPrepareStatementCount();
+    }
+
+    @Override
+    public long getEntityLoadCount() {
+        Statistics statistics = statistics();
+        return statistics == null ? 0 : statistics.getEntityLoadCount();
+    }
+
+    @Override
+    public long getEntityFetchCount() {
+        Statistics statistics = statistics();
+        return statistics == null ? 0 : statistics.getEntityFetchCount();
+    }
+
+    @Override
+    public long getCollectionFetchCount() {
+        Statistics statistics = statistics();
+        return statistics == null ? 0 : statistics.getCollectionFetchCount();
+    }
+
+    @Override
+    public long getSecondLevelCacheHitCount() {
+        Statistics statistics = statistics();
+        return statistics == null ? 0 : statistics.getSecondLevelCacheHitCount();
+    }
+
+    @Override
+    public long getSecondLevelCacheMissCount() {
+        Statistics statistics = statistics();
+        return statistics == null ? 0 : statistics.getSecondLevelCacheMissCount();
+    }
+
+    @Override
+    public long getFlushCount() {
+        Statistics statistics = statistics();
+        return statistics == null ? 0 : statistics.getFlushCount();
+    }
+
+    @Override
+    public long getTransactionCount() {
+        Statistics statistics = statistics();
+        return statistics == null ? 0 : statistics.getTransactionCount();
+    }
+
+    /**
+     * @return one line per DAO operation, the session factory totals and the slowest queries
+     */
+    @Override
+    public String summary() {
+        StringBuilder sb = new StringBuilder();
+        for (OperationMetrics metrics : operations()) {
+            sb.append(metrics.summary()).append(System.lineSeparator());
+        }
+        Statistics statistics = statistics();
+        if (statistics == null) {
+            return sb.toString();
+        }
+        sb.append(String.format("hibernate: transactions=%d flushes=%d statements=%d queries=%d"
+                        + " entityLoads=%d entityFetches=%d collectionFetches=%d l2Hits=%d l2Misses=%d%n",
+                statistics.getTransactionCount(), statistics.getFlushCount(),
+                statistics.getPrepareStatementCount(), statistics.getQueryExecutionCount(),
+                statistics.getEntityLoadCount(), statistics.getEntityFetchCount(),
+                statistics.getCollectionFetchCount(), statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount()));
+        Arrays.stream(statistics.getQueries())
+                .map(query -> Map.entry(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong((Map.Entry<String, QueryStatistics> entry) ->
+                        entry.getValue().getExecutionMaxTime()).reversed())
+                .limit(SLOWEST_QUERIES)
+                .forEach(entry -> {
+                    QueryStatistics stats = entry.getValue();
+                    sb.append(String.format("  slow query: max=%dms avg=%.1fms executions=%d rows=%d %s%n",
+                            stats.getExecutionMaxTime(), stats.getExecutionAvgTimeAsDouble(),
+                            stats.getExecutionCount(), stats.getExecutionRowCount(), entry.getKey()));
+                });
+        return sb.toString();
+    }
+
+    /**
+     * Clear the metrics of every operation and Hibernate's statistics
+     */
+    @Override
+    public void reset() {
+        OPERATIONS.values().forEach(OperationMetrics::reset);
+        Statistics statistics = statistics();
+        if (statistics != null) {
+            statistics.clear();
+        }
+    }
+}
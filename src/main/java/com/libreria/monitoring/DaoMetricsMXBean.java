@@ -0,0 +1,37 @@
+package com.libreria.monitoring;
+
+import java.util.List;
+
+/**
+ * JMX view of the DAO metrics registry and of Hibernate's session factory statistics.
+ */
+public interface DaoMetricsMXBean {
+
+    List<String> getOperationNames();
+
+    long getQueryExecutionCount();
+
+    long getQueryExecutionMaxTime();
+
+    String getQueryExecutionMaxTimeQueryString();
+
+    long getPrepareStatementCount();
+
+    long getEntityLoadCount();
+
+    long getEntityFetchCount();
+
+    long getCollectionFetchCount();
+
+    long getSecondLevelCacheHitCount();
+
+    long getSecondLevelCacheMissCount();
+
+    long getFlushCount();
+
+    long getTransactionCount();
+
+    String summary();
+
+    void reset();
+}
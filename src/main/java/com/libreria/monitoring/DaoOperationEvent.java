@@ -0,0 +1,40 @@
+package com.libreria.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one call of a DAO method, spanning the call itself
+ */
+@Name("com.libreria.DaoOperation")
+@Label("DAO Operation")
+@Category({"Libreria", "Database"})
+@Description("A call to a DAO method")
+@StackTrace(false)
+class DaoOperationEvent extends Event {
+
+    @Label("DAO")
+    String dao;
+
+    @Label("Method")
+    String method;
+
+    @Label("Entity")
+    String entity;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Statements")
+    long statements;
+
+    @Label("Entities Loaded")
+    long entitiesLoaded;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,227 @@
+package com.libreria.monitoring;
+
+import com.libreria.utils.LatencyHistogram;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Metrics of one DAO operation (e.g. "LibroDAO.findAll"): a latency histogram plus
+ * the rows returned, SQL statements prepared and entities loaded by its calls.
+ * Counts are inclusive: an operation called from another one is counted in both.
+ */
+public class OperationMetrics implements OperationMetricsMXBean {
+
+    private final String name;
+    private final String dao;
+    private final String method;
+    private final String entity;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder entities = new LongAdder();
+
+    OperationMetrics(String dao, String method, String entity) {
+        this.name = dao + "." + method;
+        this.dao = dao;
+        this.method = method;
+        this.entity = entity;
+    }
+
+    /**
+     * Run the work and record its latency, result size, statements and entity loads.
+     * While it runs this is the thread's {@link DaoMetrics#currentOperation() current operation}.
+     *
+     * @param work the DAO work
+     * @param <R> the result type
+     * @return the result of the work
+     */
+    public <R> R record(Supplier<R> work) {
+        Sample sample = start();
+        String caller = DaoMetrics.enter(name);
+        boolean failed = true;
+        try {
+            R result = work.get();
+            failed = false;
+            sample.stop(rowCount(result), false);
+            return result;
+        } finally {
+            DaoMetrics.exit(caller);
+            if (failed) {
+                sample.stop(0, true);
+            }
+        }
+    }
+
+    /**
+     * Start measuring a call whose end is not in the same method (e.g. a stream closed later)
+     *
+     * @return the running sample
+     */
+    public Sample start() {
+        return new Sample();
+    }
+
+    /**
+     * A call being measured. Statements and entity loads are counted on the thread that started it.
+     * The call is also emitted as a {@code com.libreria.DaoOperation} Flight Recorder event.
+     */
+    public final class Sample {
+
+        private final long startNanos = System.nanoTime();
+        private final long startStatements = DaoMetrics.threadStatements();
+        private final long startEntities = DaoMetrics.threadEntities();
+        private final DaoOperationEvent event = new DaoOperationEvent();
+
+        private Sample() {
+            event.begin();
+        }
+
+        /**
+         * @return the operation being measured
+         */
+        public String getOperation() {
+            return name;
+        }
+
+        /**
+         * @return nanoseconds since the call started
+         */
+        public long elapsedNanos() {
+            return System.nanoTime() - startNanos;
+        }
+
+        /**
+         * @return statements prepared on this thread since the call started
+         */
+        public long statements() {
+            return DaoMetrics.threadStatements() - startStatements;
+        }
+
+        /**
+         * End the call
+         *
+         * @param rowCount rows returned
+         * @param failed true if the call threw
+         */
+        public void stop(long rowCount, boolean failed) {
+            long statementCount = statements();
+            long entityCount = DaoMetrics.threadEntities() - startEntities;
+            latencies.record(elapsedNanos());
+            rows.add(rowCount);
+            statements.add(statementCount);
+            entities.add(entityCount);
+            if (failed) {
+                errors.increment();
+            }
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.dao = dao;
+                event.method = method;
+                event.entity = entity;
+                event.rows = rowCount;
+                event.statements = statementCount;
+                event.entitiesLoaded = entityCount;
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Rows of a result: the elements of a collection, the rows of a {@link RowCounted}, 1 for any other non-null value
+     */
+    private static long rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof RowCounted counted) {
+            return counted.rowCount();
+        }
+        return 1;
+    }
+
+    void reset() {
+        latencies.reset();
+        errors.reset();
+        rows.reset();
+        statements.reset();
+        entities.reset();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCalls() {
+        return latencies.getCount();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latencies.getMeanNanos() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public double getP50Millis() {
+        return toMillis(latencies.getPercentileNanos(50));
+    }
+
+    @Override
+    public double getP99Millis() {
+        return toMillis(latencies.getPercentileNanos(99));
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return toMillis(latencies.getMaxNanos());
+    }
+
+    @Override
+    public long getRows() {
+        return rows.sum();
+    }
+
+    @Override
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    @Override
+    public long getEntitiesLoaded() {
+        return entities.sum();
+    }
+
+    /**
+     * @return one line with calls, errors, latency percentiles and per-call averages
+     */
+    @Override
+    public String summary() {
+        long calls = getCalls();
+        return String.format("%s: calls=%d errors=%d %s rows/call=%.1f stmts/call=%.1f entities/call=%.1f",
+                name, calls, getErrors(), latencies.summary(),
+                perCall(getRows(), calls), perCall(getStatements(), calls), perCall(getEntitiesLoaded(), calls));
+    }
+
+    private static double perCall(long total, long calls) {
+        return calls == 0 ? 0 : (double) total / calls;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
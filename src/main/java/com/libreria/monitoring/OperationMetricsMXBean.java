@@ -0,0 +1,29 @@
+package com.libreria.monitoring;
+
+/**
+ * JMX view of the metrics of one DAO operation.
+ */
+public interface OperationMetricsMXBean {
+
+    String getName();
+
+    long getCalls();
+
+    long getErrors();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+
+    long getRows();
+
+    long getStatements();
+
+    long getEntitiesLoaded();
+
+    String summary();
+}
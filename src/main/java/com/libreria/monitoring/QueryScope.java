@@ -0,0 +1,248 @@
+package com.libreria.monitoring;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.LoadEventListener;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * N+1 detector bound to one service operation. While a scope is open on a thread,
+ * every query Hibernate prepares on that thread is reduced to its shape (literals and
+ * IN lists collapsed) and counted. When the scope is closed, shapes repeated at least
+ * {@value #THRESHOLD_PROPERTY} times are reported on standard error together with
+ * the lazy association that triggered them and a stack sample of the repeated call.
+ * <p>
+ * A statement budget can be set with {@value #BUDGET_PROPERTY}; with
+ * {@value #STRICT_PROPERTY}=true (test mode) exceeding it fails the operation with a
+ * {@link StatementBudgetExceededException}. Scopes opened inside another scope are
+ * folded into the outer one.
+ * <pre>
+ * QueryScope.run("CompanyService.demonstrateOneToOne", () -> {
+ *     ...
+ * });
+ * </pre>
+ */
+public final class QueryScope implements AutoCloseable {
+
+    /**
+     * System property with the number of identical statements that counts as N+1 (default 5)
+     */
+    public static final String THRESHOLD_PROPERTY = "libreria.nplusone.threshold";
+
+    /**
+     * System property with the maximum statements per operation (default 0, no budget)
+     */
+    public static final String BUDGET_PROPERTY = "libreria.nplusone.budget";
+
+    /**
+     * System property that makes an exceeded budget throw instead of only being reported
+     */
+    public static final String STRICT_PROPERTY = "libreria.nplusone.strict";
+
+    private static final int DEFAULT_THRESHOLD = 5;
+    private static final int STACK_SAMPLE_DEPTH = 8;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final ThreadLocal<QueryScope> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Returned for nested scopes: its statements are counted by the outer scope
+     */
+    private static final QueryScope NESTED = new QueryScope(null, 0, 0, false);
+
+    private final String operation;
+    private final int threshold;
+    private final int budget;
+    private final boolean strict;
+    private final Map<String, Shape> shapes = new LinkedHashMap<>();
+    private int statements;
+    private String pendingAssociation;
+
+    /**
+     * Statements of one shape issued in the scope
+     */
+    private static final class Shape {
+        private final String sql;
+        private final Set<String> associations = new LinkedHashSet<>();
+        private int count;
+        private List<StackTraceElement> stackSample = List.of();
+
+        private Shape(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    private QueryScope(String operation, int threshold, int budget, boolean strict) {
+        this.operation = operation;
+        this.threshold = threshold;
+        this.budget = budget;
+        this.strict = strict;
+    }
+
+    /**
+     * Open a detection scope on the current thread
+     *
+     * @param operation the service operation, used in reports (e.g. "BookstoreService.showAllBooksWithBookstores")
+     * @return the scope, to be closed with try-with-resources
+     */
+    public static QueryScope open(String operation) {
+        if (CURRENT.get() != null) {
+            return NESTED;
+        }
+        QueryScope scope = new QueryScope(operation,
+                Math.max(2, Integer.getInteger(THRESHOLD_PROPERTY, DEFAULT_THRESHOLD)),
+                Integer.getInteger(BUDGET_PROPERTY, 0),
+                Boolean.getBoolean(STRICT_PROPERTY));
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Run the work inside a detection scope
+     *
+     * @param operation the service operation, used in reports
+     * @param work the work to run
+     * @throws StatementBudgetExceededException in strict mode, if the work exceeded the budget
+     */
+    @SuppressWarnings("try")
+    public static void run(String operation, Runnable work) {
+        try (QueryScope ignored = open(operation)) {
+            work.run();
+        }
+    }
+
+    /**
+     * Register the listeners that tell which association a statement is loading:
+     * the association is set before Hibernate's own listener issues the SQL and
+     * cleared after it, so loads served from the caches tag nothing.
+     *
+     * @param factory the session factory just built
+     */
+    public static void install(SessionFactory factory) {
+        EventListenerRegistry registry = ((SessionFactoryImplementor) factory).getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.prependListeners(EventType.INIT_COLLECTION,
+                event -> associationLoading(event.getCollection().getRole()));
+        registry.prependListeners(EventType.LOAD,
+                (LoadEventListener) (event, loadType) -> associationLoading(event.getEntityClassName()));
+        registry.appendListeners(EventType.INIT_COLLECTION, event -> associationLoading(null));
+        registry.appendListeners(EventType.LOAD, (LoadEventListener) (event, loadType) -> associationLoading(null));
+    }
+
+    /**
+     * @return statements issued so far in this scope
+     */
+    public int getStatements() {
+        return statements;
+    }
+
+    static void statementPrepared(String sql) {
+        QueryScope scope = CURRENT.get();
+        if (scope != null) {
+            scope.record(sql);
+        }
+    }
+
+    private static void associationLoading(String association) {
+        QueryScope scope = CURRENT.get();
+        if (scope != null) {
+            scope.pendingAssociation = association;
+        }
+    }
+
+    /**
+     * Reduce a statement to its shape: literals become "?", IN lists "(?...)"
+     * and whitespace is collapsed, so the same query for different rows compares equal
+     *
+     * @param sql the SQL text
+     * @return the normalized SQL
+     */
+    public static String normalize(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("in (?...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    private void record(String sql) {
+        statements++;
+        Shape shape = shapes.computeIfAbsent(normalize(sql), Shape::new);
+        shape.count++;
+        if (pendingAssociation != null) {
+            shape.associations.add(pendingAssociation);
+            pendingAssociation = null;
+        }
+        if (shape.count == 2) {
+            // The first repetition is the statement issued from inside the loop
+            shape.stackSample = stackSample();
+        }
+    }
+
+    /**
+     * Application frames of the current stack, skipping Hibernate, the JDK and the
+     * infrastructure packages (transactions, session factory and this one)
+     */
+    private static List<StackTraceElement> stackSample() {
+        return Arrays.stream(new Throwable().getStackTrace())
+                .filter(frame -> frame.getClassName().startsWith("com.libreria.")
+                        && !frame.getClassName().startsWith("com.libreria.database.")
+                        && !frame.getClassName().startsWith(QueryScope.class.getPackageName()))
+                .limit(STACK_SAMPLE_DEPTH)
+                .toList();
+    }
+
+    /**
+     * Report repeated statements and check the budget
+     *
+     * @throws StatementBudgetExceededException in strict mode, if the budget was exceeded
+     */
+    @Override
+    public void close() {
+        if (this == NESTED) {
+            return;
+        }
+        CURRENT.remove();
+
+        String report = report();
+        if (!report.isEmpty()) {
+            System.err.print(report);
+        }
+        if (budget > 0 && statements > budget) {
+            if (strict) {
+                throw new StatementBudgetExceededException(operation, statements, budget, report);
+            }
+            System.err.println(String.format("%s issued %d statements (budget %d)", operation, statements, budget));
+        }
+    }
+
+    private String report() {
+        StringBuilder sb = new StringBuilder();
+        for (Shape shape : shapes.values()) {
+            if (shape.count < threshold) {
+                continue;
+            }
+            sb.append(String.format("N+1 in %s: %d x [%s]", operation, shape.count, shape.sql));
+            if (!shape.associations.isEmpty()) {
+                sb.append(" loading ").append(String.join(", ", shape.associations));
+            }
+            sb.append(System.lineSeparator());
+            for (StackTraceElement frame : shape.stackSample) {
+                sb.append("    at ").append(frame).append(System.lineSeparator());
+            }
+        }
+        return sb.toString();
+    }
+}
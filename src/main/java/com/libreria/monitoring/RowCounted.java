@@ -0,0 +1,13 @@
+package com.libreria.monitoring;
+
+/**
+ * A DAO result that is not a collection but still holds several rows (e.g. a page),
+ * so {@link OperationMetrics} records its row count instead of 1
+ */
+public interface RowCounted {
+
+    /**
+     * @return the number of rows this result holds
+     */
+    long rowCount();
+}
@@ -0,0 +1,24 @@
+package com.libreria.monitoring;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * One statement captured by the {@link SlowQueryLog}
+ *
+ * @param timestamp when the statement finished
+ * @param operation the DAO method that issued it (e.g. "LibroDAO.findAll"), or null outside the DAOs
+ * @param sql the normalized SQL
+ * @param parameters the types of the bind parameters, e.g. "[Long, String]", with "x n" for batches
+ * @param rows rows read (queries) or affected (updates), or -1 if unknown (e.g. a batch rewritten by the driver)
+ * @param elapsed execution time, including reading the rows of a query
+ */
+public record SlowQuery(Instant timestamp, String operation, String sql, String parameters, long rows,
+                        Duration elapsed) {
+
+    @Override
+    public String toString() {
+        return String.format("%s %.3fms rows=%d op=%s %s %s", timestamp,
+                elapsed.toNanos() / 1_000_000.0, rows, operation, sql, parameters);
+    }
+}
@@ -0,0 +1,262 @@
+package com.libreria.monitoring;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Times every JDBC statement Hibernate issues, by wrapping the DataSource handed to it,
+ * and keeps those slower than {@value #THRESHOLD_PROPERTY} milliseconds
+ * in a bounded ring buffer of {@value #BUFFER_SIZE_PROPERTY} entries (default 256),
+ * also printing them on standard error. A threshold of 0 captures every statement.
+ * <p>
+ * The log is off unless the threshold is set: every connection, statement and result set
+ * is then a reflective proxy, so it is meant for diagnosis rather than normal runs.
+ * Queries are timed from execution until their result set is closed, so the time
+ * spent reading rows is included.
+ */
+public final class SlowQueryLog {
+
+    /**
+     * System property with the slow query threshold in milliseconds; unset or negative disables the log
+     */
+    public static final String THRESHOLD_PROPERTY = "libreria.slowQuery.thresholdMillis";
+
+    /**
+     * System property with the number of slow queries kept in memory
+     */
+    public static final String BUFFER_SIZE_PROPERTY = "libreria.slowQuery.bufferSize";
+
+    private static final long DISABLED = -1;
+    private static final int DEFAULT_BUFFER_SIZE = 256;
+
+    private static final long THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            Long.getLong(THRESHOLD_PROPERTY, DISABLED));
+    private static final AtomicReferenceArray<SlowQuery> BUFFER = new AtomicReferenceArray<>(
+            Math.max(1, Integer.getInteger(BUFFER_SIZE_PROPERTY, DEFAULT_BUFFER_SIZE)));
+    private static final AtomicLong NEXT = new AtomicLong();
+
+    private SlowQueryLog() {
+    }
+
+    /**
+     * Wrap a DataSource so the statements of its connections are timed
+     *
+     * @param dataSource the pooled DataSource
+     * @return the timing DataSource, or the same one if the log is disabled
+     */
+    public static DataSource wrap(DataSource dataSource) {
+        if (THRESHOLD_NANOS < 0) {
+            return dataSource;
+        }
+        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection connection && method.getName().equals("getConnection")
+                    ? proxy(Connection.class, connection, new ConnectionHandler())
+                    : result;
+        });
+    }
+
+    /**
+     * @return the captured slow queries, oldest first
+     */
+    public static List<SlowQuery> samples() {
+        long end = NEXT.get();
+        long start = Math.max(0, end - BUFFER.length());
+        List<SlowQuery> result = new ArrayList<>();
+        for (long i = start; i < end; i++) {
+            SlowQuery sample = BUFFER.get((int) (i % BUFFER.length()));
+            if (sample != null) {
+                result.add(sample);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the captured slow queries, one per line, oldest first
+     */
+    public static String dump() {
+        StringBuilder sb = new StringBuilder();
+        for (SlowQuery sample : samples()) {
+            sb.append(sample).append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Discard the captured slow queries
+     */
+    public static void clear() {
+        for (int i = 0; i < BUFFER.length(); i++) {
+            BUFFER.set(i, null);
+        }
+    }
+
+    private static void record(String operation, String sql, String parameters, long rows, long elapsedNanos) {
+        if (elapsedNanos < THRESHOLD_NANOS) {
+            return;
+        }
+        SlowQuery sample = new SlowQuery(Instant.now(), operation, QueryScope.normalize(sql), parameters,
+                rows, Duration.ofNanos(elapsedNanos));
+        BUFFER.set((int) (NEXT.getAndIncrement() % BUFFER.length()), sample);
+        System.err.println("Slow query: " + sample);
+    }
+
+    /**
+     * Handler of a proxied JDBC object
+     */
+    @FunctionalInterface
+    private interface Handler<T> {
+        Object handle(T target, Method method, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Handler<? super T> handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> handler.handle(target, method, args);
+        return (T) Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(), new Class<?>[]{type},
+                invocationHandler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Wraps the statements a connection creates, remembering their SQL
+     */
+    private static final class ConnectionHandler implements Handler<Connection> {
+
+        @Override
+        public Object handle(Connection connection, Method method, Object[] args) throws Throwable {
+            Object result = invoke(connection, method, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            return switch (result) {
+                case CallableStatement statement when method.getName().equals("prepareCall") ->
+                        proxy(CallableStatement.class, statement, new StatementHandler(sql));
+                case PreparedStatement statement when method.getName().equals("prepareStatement") ->
+                        proxy(PreparedStatement.class, statement, new StatementHandler(sql));
+                case Statement statement when method.getName().equals("createStatement") ->
+                        proxy(Statement.class, statement, new StatementHandler(null));
+                case null, default -> result;
+            };
+        }
+    }
+
+    /**
+     * Times the executions of one statement and records the types of its bind parameters
+     */
+    private static final class StatementHandler implements Handler<Statement> {
+
+        private final String sql;
+        private final Map<Integer, String> parameters = new TreeMap<>();
+        private int batchSize;
+
+        private StatementHandler(String sql) {
+            this.sql = sql;
+        }
+
+        @Override
+        public Object handle(Statement statement, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(statement, method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                parameters.put(index, parameterType(name, args[1]));
+            } else if (name.equals("addBatch")) {
+                batchSize++;
+            } else if (name.equals("clearBatch")) {
+                batchSize = 0;
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            }
+            return invoke(statement, method, args);
+        }
+
+        private Object execute(Statement statement, Method method, Object[] args) throws Throwable {
+            String text = args != null && args.length > 0 && args[0] instanceof String given ? given : sql;
+            String shape = parameters.values() + (batchSize > 0 ? " x " + batchSize : "");
+            String operation = DaoMetrics.currentOperation();
+            long start = System.nanoTime();
+            Object result = invoke(statement, method, args);
+            long elapsed = System.nanoTime() - start;
+            batchSize = 0;
+
+            if (result instanceof ResultSet resultSet) {
+                // Recorded once the rows have been read; close() may be called more than once
+                long[] rows = new long[1];
+                boolean[] closed = new boolean[1];
+                return proxy(ResultSet.class, resultSet, (target, rsMethod, rsArgs) -> {
+                    Object value = invoke(target, rsMethod, rsArgs);
+                    if (rsMethod.getName().equals("next") && Boolean.TRUE.equals(value)) {
+                        rows[0]++;
+                    } else if (rsMethod.getName().equals("close") && !closed[0]) {
+                        closed[0] = true;
+                        record(operation, text, shape, rows[0], System.nanoTime() - start);
+                    }
+                    return value;
+                });
+            }
+            record(operation, text, shape, affectedRows(statement, result), elapsed);
+            return result;
+        }
+
+        private static long affectedRows(Statement statement, Object result) throws Throwable {
+            return switch (result) {
+                case Integer count -> count;
+                case Long count -> count;
+                case int[] counts -> batchRows(Arrays.stream(counts).asLongStream().toArray());
+                case long[] counts -> batchRows(counts);
+                case Boolean hasResultSet when !hasResultSet -> statement.getUpdateCount();
+                case null, default -> -1;
+            };
+        }
+
+        /**
+         * Rows affected by a batch, or -1 if the driver did not report them: with
+         * "rewriteBatchedStatements" MySQL answers SUCCESS_NO_INFO for each rewritten statement
+         */
+        private static long batchRows(long[] counts) {
+            long rows = 0;
+            for (long count : counts) {
+                if (count == Statement.SUCCESS_NO_INFO) {
+                    return -1;
+                }
+                rows += Math.max(0, count);
+            }
+            return rows;
+        }
+
+        private static String parameterType(String setter, Object value) {
+            if (setter.equals("setNull")) {
+                return "null";
+            }
+            if (setter.equals("setObject")) {
+                return value == null ? "null" : value.getClass().getSimpleName();
+            }
+            return setter.substring("set".length());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.libreria.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hands the SQL of every query Hibernate prepares to the {@link QueryScope} open on the
+ * current thread. Registered with the "hibernate.session_factory.statement_inspector" setting.
+ */
+public class SqlShapeInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public String inspect(String sql) {
+        QueryScope.statementPrepared(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,32 @@
+package com.libreria.monitoring;
+
+/**
+ * Thrown in strict mode when a {@link QueryScope} issues more statements than its budget.
+ */
+public class StatementBudgetExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String operation;
+    private final int statements;
+    private final int budget;
+
+    public StatementBudgetExceededException(String operation, int statements, int budget, String report) {
+        super(String.format("%s issued %d statements (budget %d)%n%s", operation, statements, budget, report));
+        this.operation = operation;
+        this.statements = statements;
+        this.budget = budget;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+}
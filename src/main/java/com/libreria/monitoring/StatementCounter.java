@@ -0,0 +1,30 @@
+package com.libreria.monitoring;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Counts every JDBC statement Hibernate prepares, and times its flushes, per thread, for {@link DaoMetrics}.
+ * Registered with the "hibernate.session.events.auto" setting, so a new instance
+ * listens to each session. Statements run through {@code Session.doWork} are not seen by Hibernate.
+ */
+public class StatementCounter extends BaseSessionEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private long flushStart;
+
+    @Override
+    public void jdbcPrepareStatementEnd() {
+        DaoMetrics.statementPrepared();
+    }
+
+    @Override
+    public void flushStart() {
+        flushStart = System.nanoTime();
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        DaoMetrics.flushFinished(System.nanoTime() - flushStart);
+    }
+}
@@ -0,0 +1,83 @@
+package com.libreria.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for one database transaction, from begin to commit or rollback.
+ * Started with {@link #start(boolean, String)} on the thread that runs the transaction.
+ */
+@Name("com.libreria.Transaction")
+@Label("Transaction")
+@Category({"Libreria", "Database"})
+@Description("A database transaction started by TransactionTemplate")
+@StackTrace(false)
+public class TransactionEvent extends Event {
+
+    @Label("Read Only")
+    boolean readOnly;
+
+    @Label("Isolation")
+    String isolation;
+
+    @Label("Committed")
+    boolean committed;
+
+    @Label("Statements")
+    long statements;
+
+    @Label("Flushes")
+    long flushes;
+
+    @Label("Flush Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long flushTime;
+
+    /**
+     * Thread counters when the transaction began; not recorded
+     */
+    private transient long startStatements;
+    private transient long startFlushes;
+    private transient long startFlushNanos;
+
+    /**
+     * Begin the event for a transaction starting on the current thread
+     *
+     * @param readOnly true for a read-only transaction
+     * @param isolation the isolation level requested
+     * @return the running event
+     */
+    public static TransactionEvent start(boolean readOnly, String isolation) {
+        TransactionEvent event = new TransactionEvent();
+        if (event.isEnabled()) {
+            event.readOnly = readOnly;
+            event.isolation = isolation;
+            event.startStatements = DaoMetrics.threadStatements();
+            event.startFlushes = DaoMetrics.threadFlushes();
+            event.startFlushNanos = DaoMetrics.threadFlushNanos();
+            event.begin();
+        }
+        return event;
+    }
+
+    /**
+     * End the event and commit it if the recording wants it
+     *
+     * @param committed true if the transaction committed, false if it rolled back
+     */
+    public void finish(boolean committed) {
+        end();
+        if (shouldCommit()) {
+            this.committed = committed;
+            statements = DaoMetrics.threadStatements() - startStatements;
+            flushes = DaoMetrics.threadFlushes() - startFlushes;
+            flushTime = DaoMetrics.threadFlushNanos() - startFlushNanos;
+            commit();
+        }
+    }
+}
@@ -4,18 +4,21 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 
-import org.hibernate.Session;
-import org.hibernate.Transaction;
-
 import com.libreria.dao.AutorDAO;
 import com.libreria.dao.EditorialDAO;
 import com.libreria.dao.LibreriaDAO;
 import com.libreria.dao.LibroDAO;
-import com.libreria.database.HibernateUtil;
+import com.libreria.dao.PurgeDAO;
+import com.libreria.dao.PurgeResult;
+import com.libreria.database.TransactionTemplate;
+import com.libreria.dto.AutorLibroDTO;
+import com.libreria.dto.LibreriaLibroDTO;
+import com.libreria.dto.LibroEditorialAutorDTO;
 import com.libreria.model.Autor;
 import com.libreria.model.Editorial;
 import com.libreria.model.Libreria;
 import com.libreria.model.Libro;
+import com.libreria.monitoring.QueryScope;
 import com.libreria.utils.Constants;
 
 /**
@@ -24,16 +27,24 @@ import com.libreria.utils.Constants;
  */
 public class BookstoreService {
 
+    /**
+     * Bookstore tables in foreign key order: join table, children, then parents
+     */
+    private static final List<String> PURGE_ORDER = List.of(
+            "LIBRERIA_LIBRO", "LIBRERIAS", "LIBROS", "EDITORIALES", "AUTORES");
+
     private final AutorDAO autorDAO;
     private final EditorialDAO editorialDAO;
     private final LibroDAO libroDAO;
     private final LibreriaDAO libreriaDAO;
+    private final PurgeDAO purgeDAO;
 
     public BookstoreService() {
         this.autorDAO = new AutorDAO();
         this.editorialDAO = new EditorialDAO();
         this.libroDAO = new LibroDAO();
         this.libreriaDAO = new LibreriaDAO();
+        this.purgeDAO = new PurgeDAO();
     }
 
     /**
@@ -41,8 +52,7 @@ public class BookstoreService {
      * @return true if data exists, false otherwise
      */
     private boolean existsData() {
-        List<Autor> autores = autorDAO.findAll();
-        return !autores.isEmpty();
+        return autorDAO.exists();
     }
 
     /**
@@ -57,93 +67,83 @@ public class BookstoreService {
         }
 
         try {
-            // Create 3 authors
-            Autor autor1 = new Autor(
-                    Constants.AUTHOR_1_NAME,
-                    Constants.AUTHOR_1_LASTNAME,
-                    LocalDate.of(Constants.AUTHOR_1_BIRTH_YEAR, Constants.AUTHOR_1_BIRTH_MONTH, Constants.AUTHOR_1_BIRTH_DAY)
-            );
-            Autor autor2 = new Autor(
-                    Constants.AUTHOR_2_NAME,
-                    Constants.AUTHOR_2_LASTNAME,
-                    LocalDate.of(Constants.AUTHOR_2_BIRTH_YEAR, Constants.AUTHOR_2_BIRTH_MONTH, Constants.AUTHOR_2_BIRTH_DAY)
-            );
-            Autor autor3 = new Autor(
-                    Constants.AUTHOR_3_NAME,
-                    Constants.AUTHOR_3_LASTNAME,
-                    LocalDate.of(Constants.AUTHOR_3_BIRTH_YEAR, Constants.AUTHOR_3_BIRTH_MONTH, Constants.AUTHOR_3_BIRTH_DAY)
-            );
-
-            autor1 = autorDAO.save(autor1);
-            autor2 = autorDAO.save(autor2);
-            autor3 = autorDAO.save(autor3);
-
-            // Create 2 publishers
-            Editorial editorial1 = new Editorial(Constants.PUBLISHER_1_NAME, Constants.PUBLISHER_1_ADDRESS);
-            Editorial editorial2 = new Editorial(Constants.PUBLISHER_2_NAME, Constants.PUBLISHER_2_ADDRESS);
-
-            editorial1 = editorialDAO.save(editorial1);
-            editorial2 = editorialDAO.save(editorial2);
-
-            // Create 8 books
-            Libro libro1 = new Libro(Constants.BOOK_1_TITLE, new BigDecimal(Constants.BOOK_1_PRICE));
-            libro1.setAutor(autor1);
-            libro1.setEditorial(editorial1);
-
-            Libro libro2 = new Libro(Constants.BOOK_2_TITLE, new BigDecimal(Constants.BOOK_2_PRICE));
-            libro2.setAutor(autor1);
-            libro2.setEditorial(editorial1);
-
-            Libro libro3 = new Libro(Constants.BOOK_3_TITLE, new BigDecimal(Constants.BOOK_3_PRICE));
-            libro3.setAutor(autor2);
-            libro3.setEditorial(editorial2);
-
-            Libro libro4 = new Libro(Constants.BOOK_4_TITLE, new BigDecimal(Constants.BOOK_4_PRICE));
-            libro4.setAutor(autor2);
-            libro4.setEditorial(editorial2);
-
-            Libro libro5 = new Libro(Constants.BOOK_5_TITLE, new BigDecimal(Constants.BOOK_5_PRICE));
-            libro5.setAutor(autor3);
-            libro5.setEditorial(editorial1);
-
-            Libro libro6 = new Libro(Constants.BOOK_6_TITLE, new BigDecimal(Constants.BOOK_6_PRICE));
-            libro6.setAutor(autor3);
-            libro6.setEditorial(editorial1);
-
-            Libro libro7 = new Libro(Constants.BOOK_7_TITLE, new BigDecimal(Constants.BOOK_7_PRICE));
-            libro7.setAutor(autor1);
-            libro7.setEditorial(editorial2);
-
-            Libro libro8 = new Libro(Constants.BOOK_8_TITLE, new BigDecimal(Constants.BOOK_8_PRICE));
-            libro8.setAutor(autor1);
-            libro8.setEditorial(editorial2);
-
-            libro1 = libroDAO.save(libro1);
-            libro2 = libroDAO.save(libro2);
-            libro3 = libroDAO.save(libro3);
-            libro4 = libroDAO.save(libro4);
-            libro5 = libroDAO.save(libro5);
-            libro6 = libroDAO.save(libro6);
-            libro7 = libroDAO.save(libro7);
-            libro8 = libroDAO.save(libro8);
-
-            // Create 2 bookstores
-            Libreria libreria1 = new Libreria(Constants.BOOKSTORE_1_NAME, Constants.BOOKSTORE_1_OWNER, Constants.BOOKSTORE_1_ADDRESS);
-            Libreria libreria2 = new Libreria(Constants.BOOKSTORE_2_NAME, Constants.BOOKSTORE_2_OWNER, Constants.BOOKSTORE_2_ADDRESS);
-
-            libreria1 = libreriaDAO.save(libreria1);
-            libreria2 = libreriaDAO.save(libreria2);
-
-
-            libreriaDAO.addBook(libreria1.getId(), libro1.getId());
-            libreriaDAO.addBook(libreria1.getId(), libro3.getId());
-            libreriaDAO.addBook(libreria1.getId(), libro5.getId());
-            libreriaDAO.addBook(libreria1.getId(), libro7.getId());
-
-            libreriaDAO.addBook(libreria2.getId(), libro2.getId());
-            libreriaDAO.addBook(libreria2.getId(), libro4.getId());
-            libreriaDAO.addBook(libreria2.getId(), libro6.getId());
-            libreriaDAO.addBook(libreria2.getId(), libro8.getId());
+            // One unit of work: a single transaction, flush and commit for the whole seed
+            TransactionTemplate.readWrite().executeWithoutResult(session -> {
+                // Create 3 authors
+                Autor autor1 = new Autor(
+                        Constants.AUTHOR_1_NAME,
+                        Constants.AUTHOR_1_LASTNAME,
+                        LocalDate.of(Constants.AUTHOR_1_BIRTH_YEAR, Constants.AUTHOR_1_BIRTH_MONTH, Constants.AUTHOR_1_BIRTH_DAY)
+                );
+                Autor autor2 = new Autor(
+                        Constants.AUTHOR_2_NAME,
+                        Constants.AUTHOR_2_LASTNAME,
+                        LocalDate.of(Constants.AUTHOR_2_BIRTH_YEAR, Constants.AUTHOR_2_BIRTH_MONTH, Constants.AUTHOR_2_BIRTH_DAY)
+                );
+                Autor autor3 = new Autor(
+                        Constants.AUTHOR_3_NAME,
+                        Constants.AUTHOR_3_LASTNAME,
+                        LocalDate.of(Constants.AUTHOR_3_BIRTH_YEAR, Constants.AUTHOR_3_BIRTH_MONTH, Constants.AUTHOR_3_BIRTH_DAY)
+                );
+
+                autor1 = autorDAO.save(autor1);
+                autor2 = autorDAO.save(autor2);
+                autor3 = autorDAO.save(autor3);
+
+                // Create 2 publishers
+                Editorial editorial1 = new Editorial(Constants.PUBLISHER_1_NAME, Constants.PUBLISHER_1_ADDRESS);
+                Editorial editorial2 = new Editorial(Constants.PUBLISHER_2_NAME, Constants.PUBLISHER_2_ADDRESS);
+
+                editorial1 = editorialDAO.save(editorial1);
+                editorial2 = editorialDAO.save(editorial2);
+
+                // Create 8 books
+                Libro libro1 = new Libro(Constants.BOOK_1_TITLE, new BigDecimal(Constants.BOOK_1_PRICE));
+                libro1.setAutor(autor1);
+                libro1.setEditorial(editorial1);
+
+                Libro libro2 = new Libro(Constants.BOOK_2_TITLE, new BigDecimal(Constants.BOOK_2_PRICE));
+                libro2.setAutor(autor1);
+                libro2.setEditorial(editorial1);
+
+                Libro libro3 = new Libro(Constants.BOOK_3_TITLE, new BigDecimal(Constants.BOOK_3_PRICE));
+                libro3.setAutor(autor2);
+                libro3.setEditorial(editorial2);
+
+                Libro libro4 = new Libro(Constants.BOOK_4_TITLE, new BigDecimal(Constants.BOOK_4_PRICE));
+                libro4.setAutor(autor2);
+                libro4.setEditorial(editorial2);
+
+                Libro libro5 = new Libro(Constants.BOOK_5_TITLE, new BigDecimal(Constants.BOOK_5_PRICE));
+                libro5.setAutor(autor3);
+                libro5.setEditorial(editorial1);
+
+                Libro libro6 = new Libro(Constants.BOOK_6_TITLE, new BigDecimal(Constants.BOOK_6_PRICE));
+                libro6.setAutor(autor3);
+                libro6.setEditorial(editorial1);
+
+                Libro libro7 = new Libro(Constants.BOOK_7_TITLE, new BigDecimal(Constants.BOOK_7_PRICE));
+                libro7.setAutor(autor1);
+                libro7.setEditorial(editorial2);
+
+                Libro libro8 = new Libro(Constants.BOOK_8_TITLE, new BigDecimal(Constants.BOOK_8_PRICE));
+                libro8.setAutor(autor1);
+                libro8.setEditorial(editorial2);
+
+                libroDAO.saveAll(List.of(libro1, libro2, libro3, libro4, libro5, libro6, libro7, libro8));
+
+                // Create 2 bookstores
+                Libreria libreria1 = new Libreria(Constants.BOOKSTORE_1_NAME, Constants.BOOKSTORE_1_OWNER, Constants.BOOKSTORE_1_ADDRESS);
+                Libreria libreria2 = new Libreria(Constants.BOOKSTORE_2_NAME, Constants.BOOKSTORE_2_OWNER, Constants.BOOKSTORE_2_ADDRESS);
+
+                libreria1 = libreriaDAO.save(libreria1);
+                libreria2 = libreriaDAO.save(libreria2);
+
+                libreriaDAO.addBooks(libreria1.getId(), List.of(
+                        libro1.getId(), libro3.getId(), libro5.getId(), libro7.getId()));
+                libreriaDAO.addBooks(libreria2.getId(), List.of(
+                        libro2.getId(), libro4.getId(), libro6.getId(), libro8.getId()));
+            });
 
             System.out.println(Constants.SUCCESS_DATA_CREATED);
         } catch (Exception e) {
@@ -159,30 +159,14 @@ public class BookstoreService {
      */
     public void deleteAllData() {
         try {
-            Session session = HibernateUtil.getSessionFactory().openSession();
-            Transaction tx = session.beginTransaction();
-            session.createNativeQuery("DELETE FROM LIBRERIA_LIBRO", Void.class).executeUpdate();
-            tx.commit();
-            session.close();
-
-            List<Libreria> librerias = libreriaDAO.findAll();
-            for (Libreria libreria : librerias) {
-                libreriaDAO.delete(libreria.getId());
-            }
-
-            List<Libro> libros = libroDAO.findAll();
-            for (Libro libro : libros) {
-                libroDAO.delete(libro.getId());
-            }
-
-            List<Editorial> editoriales = editorialDAO.findAll();
-            for (Editorial editorial : editoriales) {
-                editorialDAO.delete(editorial.getId());
-            }
-
-            List<Autor> autores = autorDAO.findAll();
-            for (Autor autor : autores) {
-                autorDAO.delete(autor.getId());
+            List<PurgeResult> results = purgeDAO.purge(PURGE_ORDER);
+            for (PurgeResult result : results) {
+                System.out.println(String.format(
+                        Constants.DISPLAY_PURGE_RESULT,
+                        result.table(),
+                        result.rowsDeleted(),
+                        result.elapsed().toMillis()
+                ));
             }
 
             System.out.println(Constants.SUCCESS_DATA_DELETED);
@@ -196,108 +180,140 @@ public class BookstoreService {
      * Query 1: Shows all books with their publisher and author using DAO.
      */
     public void showAllBooksWithPublisherAndAuthor() {
-        System.out.println(Constants.QUERY_TITLE_BOOKS_WITH_PUBLISHER_AUTHOR);
-
-        List<Libro> libros = libroDAO.findAllWithPublisherAndAuthor();
-
-        for (Libro libro : libros) {
-            System.out.println(String.format(
-                    Constants.DISPLAY_BOOK,
-                    libro.getTitulo(),
-                    libro.getPrecio(),
-                    libro.getEditorial().getNombre(),
-                    libro.getAutor().getNombre(),
-                    libro.getAutor().getApellidos()
-            ));
-        }
+        QueryScope.run("BookstoreService.showAllBooksWithPublisherAndAuthor", () -> {
+            System.out.println(Constants.QUERY_TITLE_BOOKS_WITH_PUBLISHER_AUTHOR);
+
+            List<LibroEditorialAutorDTO> libros = libroDAO.findAllWithPublisherAndAuthorProjection();
+
+            for (LibroEditorialAutorDTO libro : libros) {
+                System.out.println(String.format(
+                        Constants.DISPLAY_BOOK,
+                        libro.titulo(),
+                        libro.precio(),
+                        libro.editorial(),
+                        libro.autorNombre(),
+                        libro.autorApellidos()
+                ));
+            }
+        });
     }
 
     /**
      * Query 2: Shows all authors with their associated books using DAO.
+     * Rows come ordered by author, so a new author starts whenever the ID changes.
      */
     public void showAllAuthorsWithBooks() {
-        System.out.println(Constants.QUERY_TITLE_AUTHORS_WITH_BOOKS);
-
-        List<Autor> autores = autorDAO.findAllWithBooks();
-
-        for (Autor autor : autores) {
-            System.out.println(String.format(
-                    Constants.DISPLAY_AUTHOR,
-                    autor.getNombre(),
-                    autor.getApellidos()
-            ));
-
-            if (autor.getLibros().isEmpty()) {
-                System.out.println(Constants.DISPLAY_NO_BOOKS);
-            } else {
-                for (Libro libro : autor.getLibros()) {
+        QueryScope.run("BookstoreService.showAllAuthorsWithBooks", () -> {
+            System.out.println(Constants.QUERY_TITLE_AUTHORS_WITH_BOOKS);
+
+            List<AutorLibroDTO> filas = autorDAO.findAllWithBooksProjection();
+
+            Long autorActual = null;
+            for (AutorLibroDTO fila : filas) {
+                if (!fila.autorId().equals(autorActual)) {
+                    if (autorActual != null) {
+                        System.out.println();
+                    }
+                    autorActual = fila.autorId();
+                    System.out.println(String.format(
+                            Constants.DISPLAY_AUTHOR,
+                            fila.nombre(),
+                            fila.apellidos()
+                    ));
+                    if (fila.libroId() == null) {
+                        System.out.println(Constants.DISPLAY_NO_BOOKS);
+                    }
+                }
+                if (fila.libroId() != null) {
                     System.out.println(String.format(
                             Constants.DISPLAY_BOOK_DETAIL,
-                            libro.getTitulo(),
-                            libro.getPrecio()
+                            fila.titulo(),
+                            fila.precio()
                     ));
                 }
             }
-            System.out.println();
-        }
+            if (autorActual != null) {
+                System.out.println();
+            }
+        });
     }
 
     /**
      * Query 3: Shows all bookstores with their associated books using DAO.
+     * Rows come ordered by bookstore, so a new bookstore starts whenever the ID changes.
      */
     public void showAllBookstoresWithBooks() {
-        System.out.println(Constants.QUERY_TITLE_BOOKSTORES_WITH_BOOKS);
-
-        List<Libreria> librerias = libreriaDAO.findAllWithBooks();
-
-        for (Libreria libreria : librerias) {
-            System.out.println(String.format(
-                    Constants.DISPLAY_BOOKSTORE,
-                    libreria.getNombre(),
-                    libreria.getNombreDueno(),
-                    libreria.getDireccion()
-            ));
-
-            if (libreria.getLibros().isEmpty()) {
-                System.out.println(Constants.DISPLAY_NO_INVENTORY);
-            } else {
-                for (Libro libro : libreria.getLibros()) {
+        QueryScope.run("BookstoreService.showAllBookstoresWithBooks", () -> {
+            System.out.println(Constants.QUERY_TITLE_BOOKSTORES_WITH_BOOKS);
+
+            List<LibreriaLibroDTO> filas = libreriaDAO.findAllWithBooksProjection();
+
+            Long libreriaActual = null;
+            for (LibreriaLibroDTO fila : filas) {
+                if (!fila.libreriaId().equals(libreriaActual)) {
+                    if (libreriaActual != null) {
+                        System.out.println();
+                    }
+                    libreriaActual = fila.libreriaId();
+                    System.out.println(String.format(
+                            Constants.DISPLAY_BOOKSTORE,
+                            fila.libreriaNombre(),
+                            fila.nombreDueno(),
+                            fila.direccion()
+                    ));
+                    if (fila.libroId() == null) {
+                        System.out.println(Constants.DISPLAY_NO_INVENTORY);
+                    }
+                }
+                if (fila.libroId() != null) {
                     System.out.println(String.format(
                             Constants.DISPLAY_BOOK_IN_STORE,
-                            libro.getTitulo()
+                            fila.titulo()
                     ));
                 }
             }
-            System.out.println();
-        }
+            if (libreriaActual != null) {
+                System.out.println();
+            }
+        });
     }
 
     /**
      * Query 4: Shows all books and the bookstores they are in using DAO.
+     * Rows come ordered by book, so a new book starts whenever the ID changes.
      */
     public void showAllBooksWithBookstores() {
-        System.out.println(Constants.QUERY_TITLE_BOOKS_WITH_BOOKSTORES);
-
-        List<Libro> libros = libroDAO.findAllWithBookstores();
-
-        for (Libro libro : libros) {
-            System.out.println(String.format(
-                    Constants.DISPLAY_BOOK_AVAILABILITY,
-                    libro.getTitulo(),
-                    libro.getPrecio()
-            ));
-
-            if (libro.getLibrerias().isEmpty()) {
-                System.out.println(Constants.DISPLAY_NO_BOOKSTORE);
-            } else {
-                for (Libreria libreria : libro.getLibrerias()) {
+        QueryScope.run("BookstoreService.showAllBooksWithBookstores", () -> {
+            System.out.println(Constants.QUERY_TITLE_BOOKS_WITH_BOOKSTORES);
+
+            List<LibreriaLibroDTO> filas = libroDAO.findAllWithBookstoresProjection();
+
+            Long libroActual = null;
+            for (LibreriaLibroDTO fila : filas) {
+                if (!fila.libroId().equals(libroActual)) {
+                    if (libroActual != null) {
+                        System.out.println();
+                    }
+                    libroActual = fila.libroId();
+                    System.out.println(String.format(
+                            Constants.DISPLAY_BOOK_AVAILABILITY,
+                            fila.titulo(),
+                            fila.precio()
+                    ));
+                    if (fila.libreriaId() == null) {
+                        System.out.println(Constants.DISPLAY_NO_BOOKSTORE);
+                    }
+                }
+                if (fila.libreriaId() != null) {
                     System.out.println(String.format(
                             Constants.DISPLAY_BOOKSTORE_NAME,
-                            libreria.getNombre()
+                            fila.libreriaNombre()
                     ));
                 }
             }
-            System.out.println();
-        }
+            if (libroActual != null) {
+                System.out.println();
+            }
+        });
     }
 }
\ No newline at end of file
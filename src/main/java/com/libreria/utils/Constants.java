@@ -93,6 +93,7 @@ public class Constants {
     public static final String DISPLAY_NO_PROJECTS = "  No está asignado a ningún proyecto";
     public static final String DISPLAY_ASSIGNED_PROJECTS = "  Proyectos asignados:";
     public static final String DISPLAY_PROJECT_DETAIL = "  - %s - %s";
+    public static final String DISPLAY_PURGE_RESULT = "  %s: %d filas eliminadas en %d ms";
 
     // Sample data constants - Authors
     public static final String AUTHOR_1_NAME = "Gabriel";